@@ -5,11 +5,13 @@ import com.asteria.game.character.Animation
 import com.asteria.game.character.Flag
 import com.asteria.game.character.Graphic
 import com.asteria.game.character.npc.Npc
+import com.asteria.game.character.npc.NpcDefinition
 import com.asteria.game.character.npc.drop.NpcDropManager
 import com.asteria.game.character.npc.drop.NpcDropTable
 import com.asteria.game.character.player.Player
 import com.asteria.game.character.player.Rights
 import com.asteria.game.character.player.serialize.PlayerSerialization
+import com.asteria.game.character.player.serialize.PlayerSerializationBenchmark
 import com.asteria.game.character.player.skill.SkillData
 import com.asteria.game.character.player.skill.Skills
 import com.asteria.game.item.Item
@@ -23,6 +25,10 @@ import com.asteria.game.plugin.PluginListener
 import com.asteria.game.plugin.PluginSignature
 import com.asteria.game.plugin.context.CommandPlugin
 import com.asteria.net.ConnectionHandler
+import com.asteria.net.PlayerIO
+import com.asteria.utility.json.ItemDefinitionLoader
+import com.asteria.utility.json.JsonReloader
+import com.asteria.utility.json.NpcDefinitionLoader
 
 @PluginSignature(CommandPlugin.class)
 final class Commands implements PluginListener<CommandPlugin> {
@@ -58,12 +64,7 @@ final class Commands implements PluginListener<CommandPlugin> {
                     player.visible = true
                     break
                 case "save":
-                    World.players.each {
-                        World.getService().submit({
-                            ->
-                            new PlayerSerialization(it).serialize()
-                        })
-                    }
+                    World.players.each { it.save() }
                     player.messages.sendMessage "Character files have been saved for everyone online!"
                     break
                 case "setlevel":
@@ -197,6 +198,63 @@ final class Commands implements PluginListener<CommandPlugin> {
                     player.messages.sendMessage
                     players == 1 ? "There is currently 1 player online!" : "There are currently ${players} players online!"
                     break
+                case "netstats":
+                    player.messages.sendMessage "${PlayerIO.statistics}"
+                    if (cmd.length == 2 && cmd[1].equals("reset"))
+                        PlayerIO.statistics.reset()
+                    break
+                case "loginstats":
+                    player.messages.sendMessage "${PlayerIO.loginWorkers}"
+                    if (cmd.length == 2 && cmd[1].equals("reset"))
+                        PlayerIO.loginWorkers.reset()
+                    break
+                case "tickstats":
+                    player.messages.sendMessage "${World.profiler}"
+                    World.profiler.phaseSummaries.each { player.messages.sendMessage it }
+                    if (cmd.length == 2 && cmd[1].equals("reset"))
+                        World.profiler.reset()
+                    break
+                case "savestats":
+                    player.messages.sendMessage "${PlayerSerialization.saveQueue}"
+                    player.messages.sendMessage "${PlayerSerialization.store}"
+                    if (cmd.length == 2 && cmd[1].equals("reset"))
+                        PlayerSerialization.saveQueue.reset()
+                    break
+                case "migratestore":
+                    boolean segments = !(cmd.length == 2 && cmd[1].equals("files"))
+                    World.getService().submit({
+                        ->
+                        PlayerSerialization.migrate(segments)
+                    })
+                    player.messages.sendMessage "Migrating character files to the ${segments ? 'segment log' : 'per-file layout'}..."
+                    break
+                case "savebench":
+                    int iterations = cmd.length == 2 ? Integer.parseInt(cmd[1]) : 100
+                    new PlayerSerializationBenchmark(player, iterations).run({ String summary -> player.messages.sendMessage summary })
+                    player.messages.sendMessage "Benchmarking character file saves and loads..."
+                    break
+                case "convertsaves":
+                    boolean binary = !(cmd.length == 2 && cmd[1].equals("json"))
+                    World.getService().submit({
+                        ->
+                        PlayerSerialization.convert(binary)
+                    })
+                    player.messages.sendMessage "Converting character files to ${binary ? 'binary' : 'JSON'}..."
+                    break
+                case "reload":
+                    if (JsonReloader.reload({ String summary -> player.messages.sendMessage summary }))
+                        player.messages.sendMessage "Reloading definitions, shops, drop tables and equipment data..."
+                    else
+                        player.messages.sendMessage "A reload is already in progress."
+                    break
+                case "packdefs":
+                    World.getService().submit({
+                        ->
+                        new ItemDefinitionLoader(new ItemDefinition[ItemDefinition.DEFINITIONS.length]).reload()
+                        new NpcDefinitionLoader(new NpcDefinition[NpcDefinition.DEFINITIONS.length], new HashSet<>()).reload()
+                    })
+                    player.messages.sendMessage "Compiling the definition archives from the json files..."
+                    break
                 case "gfx":
                     player.graphic new Graphic(Integer.parseInt(cmd[1]))
                     break
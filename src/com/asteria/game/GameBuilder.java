@@ -1,16 +1,19 @@
 package com.asteria.game;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.asteria.Bootstrap;
 import com.asteria.game.character.player.content.RestoreStatTask;
 import com.asteria.game.character.player.minigame.MinigameHandler;
+import com.asteria.game.character.player.serialize.AutosaveTask;
 import com.asteria.game.character.player.serialize.PlayerSerialization;
 import com.asteria.game.item.ItemNodeManager;
+import com.asteria.game.location.AreaIndex;
 import com.asteria.net.ConnectionHandler;
 import com.asteria.service.ServiceQueue;
 import com.asteria.utility.BackgroundLoader;
+import com.asteria.utility.BackgroundTask;
 import com.asteria.utility.json.EquipmentRequirementLoader;
 import com.asteria.utility.json.ItemDefinitionLoader;
 import com.asteria.utility.json.ItemNodeLoader;
@@ -39,7 +42,7 @@ public final class GameBuilder {
      * The background loader that will load various utilities in the background
      * while the bootstrap is preparing the server.
      */
-    private final BackgroundLoader backgroundLoader = new BackgroundLoader();
+    private final BackgroundLoader backgroundLoader = new BackgroundLoader(GameConstants.STARTUP_THREADS);
 
     /**
      * The service queue that will run the {@link GameService}.
@@ -55,43 +58,51 @@ public final class GameBuilder {
      */
     public void initialize() throws Exception {
         backgroundLoader.start(createBackgroundTasks());
-        queue.submit(World.getService());
         World.submit(new ItemNodeManager());
         World.submit(new RestoreStatTask());
+        World.submit(new AutosaveTask());
         World.submit(new MinigameHandler());
         PlayerSerialization.getCache().init();
+        PlayerSerialization.getStore().init();
+        PlayerSerialization.getSaveQueue().init();
+        World.getProfiler().register();
         if (!backgroundLoader.awaitCompletion())
             throw new IllegalStateException("Background load did not complete normally!");
+        queue.submit(World.getService());
     }
 
     /**
-     * Returns a queue containing all of the background tasks that will be
-     * executed by the background loader. Please note that the loader may use
-     * multiple threads to load the utilities concurrently, so utilities that
-     * depend on each other <b>must</b> be executed in the same task to ensure
-     * thread safety.
+     * Returns the background tasks that will be executed by the background
+     * loader. The loader uses multiple threads to execute tasks concurrently,
+     * so tasks that depend on the data loaded by another task <b>must</b>
+     * declare it as a dependency to ensure thread safety.
      *
-     * @return the queue of background tasks.
+     * @return the background tasks.
      */
-    public Queue<Runnable> createBackgroundTasks() {
-        Queue<Runnable> tasks = new ArrayDeque<>();
-        tasks.add(new NpcDefinitionLoader());
-        tasks.add(new ItemDefinitionLoader());
-        tasks.add(new WeaponPoisonLoader());
-        tasks.add(new MessageOpcodeLoader());
-        tasks.add(new MessageSizeLoader());
-        tasks.add(ConnectionHandler::parseIPBans);
-        tasks.add(new NpcNodeLoader());
-        tasks.add(new ShopLoader());
-        tasks.add(new ItemNodeLoader());
-        tasks.add(new ObjectNodeLoader());
-        tasks.add(new NpcDropTableLoader());
-        tasks.add(new WeaponAnimationLoader());
-        tasks.add(new WeaponInterfaceLoader());
-        tasks.add(new EquipmentRequirementLoader());
-        tasks.add(new ObjectNodeRemoveLoader());
-        tasks.add(new NpcDropCacheLoader());
-        tasks.add(World.getPlugins()::init);
+    public List<BackgroundTask> createBackgroundTasks() {
+        List<BackgroundTask> tasks = new ArrayList<>();
+        BackgroundTask npcs = new BackgroundTask(new NpcDefinitionLoader());
+        BackgroundTask items = new BackgroundTask(new ItemDefinitionLoader());
+        BackgroundTask objects = new BackgroundTask(new ObjectNodeLoader());
+        BackgroundTask areas = new BackgroundTask("Areas", AreaIndex::init);
+        tasks.add(npcs);
+        tasks.add(items);
+        tasks.add(objects);
+        tasks.add(areas);
+        tasks.add(new BackgroundTask(new WeaponPoisonLoader()));
+        tasks.add(new BackgroundTask(new MessageOpcodeLoader()));
+        tasks.add(new BackgroundTask(new MessageSizeLoader()));
+        tasks.add(new BackgroundTask("IPBans", ConnectionHandler::parseIPBans));
+        tasks.add(new BackgroundTask(new NpcNodeLoader(), npcs));
+        tasks.add(new BackgroundTask(new ShopLoader(), items));
+        tasks.add(new BackgroundTask(new ItemNodeLoader(), items));
+        tasks.add(new BackgroundTask(new NpcDropTableLoader(), items));
+        tasks.add(new BackgroundTask(new NpcDropCacheLoader(), items));
+        tasks.add(new BackgroundTask(new WeaponAnimationLoader()));
+        tasks.add(new BackgroundTask(new WeaponInterfaceLoader()));
+        tasks.add(new BackgroundTask(new EquipmentRequirementLoader(), items));
+        tasks.add(new BackgroundTask(new ObjectNodeRemoveLoader(), objects));
+        tasks.add(new BackgroundTask("Plugins", World.getPlugins()::init, npcs, items, areas));
         return tasks;
     }
 }
@@ -2,7 +2,11 @@ package com.asteria.game;
 
 import com.asteria.game.character.npc.Npc;
 import com.asteria.game.character.player.Player;
+import com.asteria.game.character.player.serialize.AutosaveTask;
+import com.asteria.game.character.player.serialize.PlayerBinaryFormat;
+import com.asteria.game.character.player.serialize.PlayerSaveQueue;
 import com.asteria.game.character.player.serialize.PlayerSerializationCache;
+import com.asteria.game.character.player.serialize.SegmentPlayerStore;
 import com.asteria.game.item.Item;
 import com.asteria.game.location.Location;
 import com.asteria.game.location.Position;
@@ -29,6 +33,52 @@ public final class GameConstants {
      */
     public static final boolean CLEAN_CACHE = false;
 
+    /**
+     * The flag that determines if character files should be written in the
+     * compact {@link PlayerBinaryFormat} rather than in {@code JSON}. Character
+     * files in either format can always be read, regardless of this value.
+     */
+    public static final boolean BINARY_SAVES = true;
+
+    /**
+     * The maximum amount of character files the {@link PlayerSaveQueue} will
+     * write in a single batch.
+     */
+    public static final int SAVE_BATCH_SIZE = 50;
+
+    /**
+     * The maximum time in {@code SECONDS} a login or shutdown will wait for
+     * pending character files to be saved.
+     */
+    public static final int SAVE_TIMEOUT_SECONDS = 10;
+
+    /**
+     * The time in {@code MINUTES} the {@link AutosaveTask} takes to save every
+     * online player once. Saves are spread evenly across every tick within
+     * this window rather than all being done at once.
+     */
+    public static final int AUTOSAVE_MINUTES = 5;
+
+    /**
+     * The flag that determines if character files should be appended to a
+     * {@link SegmentPlayerStore} rather than each being saved to its own file.
+     * Existing character files can be moved between the two with the
+     * {@code ::migratestore} command.
+     */
+    public static final boolean SEGMENT_STORE = false;
+
+    /**
+     * The size in bytes a segment of the {@link SegmentPlayerStore} can grow
+     * to before records are appended to a new segment.
+     */
+    public static final long STORE_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The time in {@code MINUTES} between compactions of the
+     * {@link SegmentPlayerStore}.
+     */
+    public static final int STORE_COMPACTION_MINUTES = 10;
+
     /**
      * The default time in {@code SECONDS} that all utility threads will go idle
      * on after not receiving any tasks. This is in place to ensure that threads
@@ -41,19 +91,44 @@ public final class GameConstants {
      */
     public static final int CYCLE_RATE = 600;
 
+    /**
+     * The amount of recent latencies the {@link TickProfiler} keeps for every
+     * phase when determining percentiles.
+     */
+    public static final int PROFILER_SAMPLES = 1000;
+
     /**
      * How long the player will stay logged in for after they have x-logged
      * during combat.
      */
     public static final int LOGOUT_SECONDS = 90;
 
+    /**
+     * The amount of threads used to execute concurrent game synchronization
+     * tasks. If this value is {@code 1} or lower, synchronization is always
+     * done sequentially on the game thread.
+     */
+    public static final int SYNC_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The approximate amount of characters a single chunk of a concurrent game
+     * synchronization task will process before it's split any further.
+     */
+    public static final int SYNC_CHUNK_SIZE = 8;
+
     /**
      * The flag that determines if processing should be parallelized, improving
      * the performance of the server times {@code n} (where
-     * {@code n = Runtime.getRuntime().availableProcessors()}) at the cost of
-     * substantially more CPU usage.
+     * {@code n = SYNC_THREADS}) at the cost of substantially more CPU usage.
      */
-    public static final boolean CONCURRENCY = (Runtime.getRuntime().availableProcessors() > 1);
+    public static final boolean CONCURRENCY = (SYNC_THREADS > 1);
+
+    /**
+     * The amount of threads used to execute the background tasks that load
+     * definitions and other data on startup. Tasks that don't depend on each
+     * other are executed concurrently.
+     */
+    public static final int STARTUP_THREADS = Runtime.getRuntime().availableProcessors();
 
     /**
      * The maximum amount of players that can be logged in on a single game
@@ -73,6 +148,20 @@ public final class GameConstants {
      */
     public static final int TARGET_DISTANCE = 6;
 
+    /**
+     * The absolute distance that characters must be within to be viewable by
+     * one another.
+     */
+    public static final int VIEWING_DISTANCE = 15;
+
+    /**
+     * The absolute distance that a position can be from a player while still
+     * being within the map area loaded by their client. A new map area is
+     * loaded before players come within {@code 16} tiles of the edge of the
+     * current one.
+     */
+    public static final int MAP_VIEWING_DISTANCE = 88;
+
     /**
      * The maximum amount of drops that can be rolled from the dynamic drop
      * table.
@@ -46,10 +46,12 @@ public final class GameService extends Service {
     @Override
     public void execute(ServiceQueue context) {
         try {
+            World.getProfiler().begin();
             World.sequence();
         } catch (Throwable t) {
             logger.log(Level.SEVERE, "An error has occured during the main game sequence!", t);
-            World.getPlayers().forEach(player -> player.save());
+        } finally {
+            World.getProfiler().end();
         }
     }
 
@@ -0,0 +1,281 @@
+package com.asteria.game;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.asteria.utility.LoggerUtils;
+
+/**
+ * The profiler that records how long each phase of the {@link GameService}
+ * takes to execute every tick. The latest {@link GameConstants#PROFILER_SAMPLES}
+ * latencies of every phase are kept in order to determine percentiles, and
+ * every tick that takes longer than {@link GameConstants#CYCLE_RATE} is
+ * counted as an overrun.
+ * <p>
+ * <p>
+ * Phases are recorded on the game thread by calling {@link #begin()} before
+ * the tick, {@link #mark(String)} after every phase, and {@link #end()} after
+ * the tick. The recorded numbers can be read safely from any thread.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class TickProfiler implements TickProfilerMBean {
+
+    /**
+     * The name of the phase that covers the entire tick.
+     */
+    public static final String TICK = "tick";
+
+    /**
+     * The logger that will print important information.
+     */
+    private final Logger logger = LoggerUtils.getLogger(TickProfiler.class);
+
+    /**
+     * The map of phase names to their recorded latencies.
+     */
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+    /**
+     * The time in nanoseconds the current tick began.
+     */
+    private long tickStart;
+
+    /**
+     * The time in nanoseconds the last phase of the current tick ended.
+     */
+    private long phaseStart;
+
+    /**
+     * The amount of ticks that have been profiled.
+     */
+    private long ticks;
+
+    /**
+     * The amount of ticks that took longer than the cycle rate to execute.
+     */
+    private long overruns;
+
+    /**
+     * Registers this profiler with the platform MBean server, making it
+     * available through JMX.
+     */
+    public void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("com.asteria:type=TickProfiler"));
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Could not register the tick profiler MBean!", e);
+        }
+    }
+
+    /**
+     * Begins profiling a new tick.
+     */
+    public void begin() {
+        tickStart = System.nanoTime();
+        phaseStart = tickStart;
+    }
+
+    /**
+     * Records the time since the last phase ended as the latency of
+     * {@code phase}.
+     *
+     * @param phase
+     *            the name of the phase that just ended.
+     */
+    public void mark(String phase) {
+        long now = System.nanoTime();
+        phase(phase).record(now - phaseStart);
+        phaseStart = now;
+    }
+
+    /**
+     * Ends profiling the current tick, recording its latency and determining
+     * if it has overrun the cycle rate.
+     */
+    public void end() {
+        long elapsed = System.nanoTime() - tickStart;
+        phase(TICK).record(elapsed);
+        synchronized (this) {
+            ticks++;
+            if (elapsed > TimeUnit.MILLISECONDS.toNanos(GameConstants.CYCLE_RATE))
+                overruns++;
+        }
+    }
+
+    /**
+     * Retrieves the phase for {@code name}, creating it if it doesn't exist.
+     *
+     * @param name
+     *            the name of the phase.
+     * @return the phase.
+     */
+    private synchronized Phase phase(String name) {
+        return phases.computeIfAbsent(name, Phase::new);
+    }
+
+    /**
+     * Retrieves the phase for {@code name}.
+     *
+     * @param name
+     *            the name of the phase.
+     * @return the phase, or {@code null} if it doesn't exist.
+     */
+    private synchronized Phase get(String name) {
+        return phases.get(name);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TICKS[count= " + ticks + ", overruns= " + overruns + "]";
+    }
+
+    @Override
+    public synchronized long getTicks() {
+        return ticks;
+    }
+
+    @Override
+    public synchronized long getOverruns() {
+        return overruns;
+    }
+
+    @Override
+    public synchronized String[] getPhaseNames() {
+        return phases.keySet().toArray(new String[phases.size()]);
+    }
+
+    @Override
+    public synchronized String[] getPhaseSummaries() {
+        return phases.values().stream().map(Phase::toString).toArray(String[]::new);
+    }
+
+    @Override
+    public double getP50Millis(String phase) {
+        Phase p = get(phase);
+        return p == null ? 0 : millis(p.percentile(0.50));
+    }
+
+    @Override
+    public double getP99Millis(String phase) {
+        Phase p = get(phase);
+        return p == null ? 0 : millis(p.percentile(0.99));
+    }
+
+    @Override
+    public double getMaxMillis(String phase) {
+        Phase p = get(phase);
+        return p == null ? 0 : millis(p.getMax());
+    }
+
+    @Override
+    public synchronized void reset() {
+        phases.clear();
+        ticks = 0;
+        overruns = 0;
+    }
+
+    /**
+     * Converts {@code nanos} to milliseconds.
+     *
+     * @param nanos
+     *            the nanoseconds to convert.
+     * @return the converted milliseconds.
+     */
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * A single profiled phase, holding a ring of its most recent latencies.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    private static final class Phase {
+
+        /**
+         * The name of this phase.
+         */
+        private final String name;
+
+        /**
+         * The ring of the most recent latencies in nanoseconds.
+         */
+        private final long[] samples = new long[GameConstants.PROFILER_SAMPLES];
+
+        /**
+         * The total amount of latencies that have been recorded.
+         */
+        private long count;
+
+        /**
+         * The largest latency in nanoseconds that has been recorded.
+         */
+        private long max;
+
+        /**
+         * Creates a new {@link Phase}.
+         *
+         * @param name
+         *            the name of this phase.
+         */
+        public Phase(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[p50= %.2fms, p99= %.2fms, max= %.2fms]", name.toUpperCase(), millis(percentile(0.50)), millis(
+                percentile(0.99)), millis(getMax()));
+        }
+
+        /**
+         * Records a single latency for this phase.
+         *
+         * @param nanos
+         *            the latency in nanoseconds.
+         */
+        public synchronized void record(long nanos) {
+            samples[(int) (count++ % samples.length)] = nanos;
+            max = Math.max(max, nanos);
+        }
+
+        /**
+         * Determines the latency at {@code percentile} out of the most recent
+         * latencies.
+         *
+         * @param percentile
+         *            the percentile, between {@code 0} and {@code 1}.
+         * @return the latency in nanoseconds, or {@code 0} if nothing has been
+         *         recorded.
+         */
+        public long percentile(double percentile) {
+            long[] sorted;
+            synchronized (this) {
+                sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+            }
+            if (sorted.length == 0)
+                return 0;
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        /**
+         * Gets the largest latency in nanoseconds that has been recorded.
+         *
+         * @return the largest latency.
+         */
+        public synchronized long getMax() {
+            return max;
+        }
+    }
+}
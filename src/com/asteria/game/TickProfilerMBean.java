@@ -0,0 +1,74 @@
+package com.asteria.game;
+
+/**
+ * The management interface that exposes the numbers recorded by a
+ * {@link TickProfiler} through JMX.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public interface TickProfilerMBean {
+
+    /**
+     * Gets the amount of ticks that have been profiled.
+     *
+     * @return the amount of ticks.
+     */
+    long getTicks();
+
+    /**
+     * Gets the amount of ticks that took longer than
+     * {@link GameConstants#CYCLE_RATE} to execute.
+     *
+     * @return the amount of overruns.
+     */
+    long getOverruns();
+
+    /**
+     * Gets the names of every phase that has been profiled, in the order they
+     * are executed.
+     *
+     * @return the names of the phases.
+     */
+    String[] getPhaseNames();
+
+    /**
+     * Gets a summary of the latencies of every phase that has been profiled.
+     *
+     * @return the summaries of the phases.
+     */
+    String[] getPhaseSummaries();
+
+    /**
+     * Gets the {@code 50th} percentile latency of {@code phase} in
+     * milliseconds.
+     *
+     * @param phase
+     *            the name of the phase.
+     * @return the latency, or {@code 0} if the phase doesn't exist.
+     */
+    double getP50Millis(String phase);
+
+    /**
+     * Gets the {@code 99th} percentile latency of {@code phase} in
+     * milliseconds.
+     *
+     * @param phase
+     *            the name of the phase.
+     * @return the latency, or {@code 0} if the phase doesn't exist.
+     */
+    double getP99Millis(String phase);
+
+    /**
+     * Gets the maximum latency of {@code phase} in milliseconds.
+     *
+     * @param phase
+     *            the name of the phase.
+     * @return the latency, or {@code 0} if the phase doesn't exist.
+     */
+    double getMaxMillis(String phase);
+
+    /**
+     * Discards every recorded latency and resets all of the counters.
+     */
+    void reset();
+}
@@ -9,6 +9,7 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 import plugin.minigames.fightcaves.FightCavesHandler;
@@ -87,6 +88,17 @@ public final class World {
      */
     private static GameSyncExecutor executor = new GameSyncExecutor();
 
+    /**
+     * The profiler for the phases of the update sequence.
+     */
+    private static TickProfiler profiler = new TickProfiler();
+
+    /**
+     * The queue of characters that failed during a synchronization task, which
+     * are removed on the game thread once that task completes.
+     */
+    private static Queue<CharacterNode> failed = new ConcurrentLinkedQueue<>();
+
     /**
      * The default constructor, will throw an
      * {@link UnsupportedOperationException} if instantiated.
@@ -116,6 +128,7 @@ public final class World {
             if (!players.add(player))
                 player.dispose();
         }
+        profiler.mark("logins");
 
         // Handle queued logouts.
         int amount = 0;
@@ -129,12 +142,14 @@ public final class World {
                 amount++;
             }
         }
+        profiler.mark("logouts");
 
         // Handle task processing.
         taskQueue.sequence();
+        profiler.mark("tasks");
 
         // Handle synchronization tasks.
-        executor.sync(new GameSyncTask(NodeType.PLAYER, false) {
+        sync(new GameSyncTask("player sequence", NodeType.PLAYER, false) {
             @Override
             public void execute(int index) {
                 Player player = players.get(index);
@@ -144,12 +159,12 @@ public final class World {
                     player.sequence();
                 } catch (Exception e) {
                     e.printStackTrace();
-                    World.getPlayers().remove(player);
+                    failed.add(player);
                 }
             }
         });
 
-        executor.sync(new GameSyncTask(NodeType.NPC, false) {
+        sync(new GameSyncTask("npc sequence", NodeType.NPC, false) {
             @Override
             public void execute(int index) {
                 Npc npc = npcs.get(index);
@@ -158,12 +173,12 @@ public final class World {
                     npc.getMovementQueue().sequence();
                 } catch (Exception e) {
                     e.printStackTrace();
-                    World.getNpcs().remove(npc);
+                    failed.add(npc);
                 }
             }
         });
 
-        executor.sync(new GameSyncTask(NodeType.PLAYER) {
+        sync(new GameSyncTask("player updating", NodeType.PLAYER) {
             @Override
             public void execute(int index) {
                 Player player = players.get(index);
@@ -173,29 +188,30 @@ public final class World {
                         NpcUpdating.update(player);
                     } catch (Exception e) {
                         e.printStackTrace();
-                        World.getPlayers().remove(player);
+                        failed.add(player);
                     }
                 }
             }
         });
 
-        executor.sync(new GameSyncTask(NodeType.PLAYER) {
+        sync(new GameSyncTask("player reset", NodeType.PLAYER) {
             @Override
             public void execute(int index) {
                 Player player = players.get(index);
                 synchronized (player) {
                     try {
                         player.reset();
-                        player.setCachedUpdateBlock(null);
+                        player.getUpdateBlockCache().clear();
+                        player.getSession().flushQueuedMessages();
                     } catch (Exception e) {
                         e.printStackTrace();
-                        World.getPlayers().remove(player);
+                        failed.add(player);
                     }
                 }
             }
         });
 
-        executor.sync(new GameSyncTask(NodeType.NPC) {
+        sync(new GameSyncTask("npc reset", NodeType.NPC) {
             @Override
             public void execute(int index) {
                 Npc npc = npcs.get(index);
@@ -204,13 +220,36 @@ public final class World {
                         npc.reset();
                     } catch (Exception e) {
                         e.printStackTrace();
-                        World.getNpcs().remove(npc);
+                        failed.add(npc);
                     }
                 }
             }
         });
     }
 
+    /**
+     * Executes {@code syncTask} under the {@link GameSyncExecutor} and records
+     * how long it took as a phase of the {@link TickProfiler}, named after the
+     * task. Characters that failed during the task are removed afterwards on
+     * the game thread, since synchronization tasks may be executed on any
+     * amount of threads.
+     *
+     * @param syncTask
+     *            the synchronization task to execute.
+     */
+    private static void sync(GameSyncTask syncTask) {
+        executor.sync(syncTask);
+        CharacterNode character;
+        while ((character = failed.poll()) != null) {
+            if (character.getType() == NodeType.PLAYER) {
+                players.remove((Player) character);
+            } else {
+                npcs.remove((Npc) character);
+            }
+        }
+        profiler.mark(syncTask.getName());
+    }
+
     /**
      * Queues {@code player} to be logged in on the next server sequence.
      * 
@@ -250,7 +289,7 @@ public final class World {
 
     /**
      * Returns a player within an optional whose name hash is equal to
-     * {@code username}.
+     * {@code username}, through the username index of the players.
      *
      * @param username
      *            the name hash to check the collection of players for.
@@ -258,12 +297,13 @@ public final class World {
      *         not found.
      */
     public static Optional<Player> getPlayer(long username) {
-        return players.search(player -> player.getUsernameHash() == username);
+        return players.lookup(username);
     }
 
     /**
      * Returns a player within an optional whose name is equal to
-     * {@code username}.
+     * {@code username} ignoring case, through the username index of the
+     * players.
      *
      * @param username
      *            the name to check the collection of players for.
@@ -273,7 +313,7 @@ public final class World {
     public static Optional<Player> getPlayer(String username) {
         if (username == null)
             return Optional.empty();
-        return players.search(player -> player.getUsername().equals(username));
+        return players.lookup(username);
     }
 
     /**
@@ -288,7 +328,7 @@ public final class World {
     public static Iterator<Player> getLocalPlayers(CharacterNode character) {
         if (character.getType() == NodeType.PLAYER)
             return ((Player) character).getLocalPlayers().iterator();
-        return players.iterator();
+        return players.getRegions().getWithin(character.getPosition(), GameConstants.VIEWING_DISTANCE).iterator();
     }
 
     /**
@@ -303,7 +343,56 @@ public final class World {
     public static Iterator<Npc> getLocalNpcs(CharacterNode character) {
         if (character.getType() == NodeType.PLAYER)
             return ((Player) character).getLocalNpcs().iterator();
-        return npcs.iterator();
+        return npcs.getRegions().getWithin(character.getPosition(), GameConstants.VIEWING_DISTANCE).iterator();
+    }
+
+    /**
+     * Executes {@code action} for every {@link Player} on the same height level
+     * as {@code position} whose loaded map area contains {@code position}.
+     * Only the players within the regions surrounding the position are
+     * inspected.
+     *
+     * @param position
+     *            the position that the players must have loaded.
+     * @param action
+     *            the action to execute for every player found.
+     */
+    public static void forEachViewer(Position position, Consumer<? super Player> action) {
+        forEachViewer(position, GameConstants.MAP_VIEWING_DISTANCE, action);
+    }
+
+    /**
+     * Executes {@code action} for every {@link Player} within {@code distance}
+     * tiles of {@code position} whose loaded map area contains
+     * {@code position}.
+     *
+     * @param position
+     *            the position that the players must have loaded.
+     * @param distance
+     *            the distance that the players must be within.
+     * @param action
+     *            the action to execute for every player found.
+     */
+    public static void forEachViewer(Position position, int distance, Consumer<? super Player> action) {
+        players.getRegions().forEach(position, distance, p -> {
+            if (p.getCurrentRegion() != null && position.isWithinMapArea(p.getCurrentRegion()))
+                action.accept(p);
+        });
+    }
+
+    /**
+     * Updates the spatial index entry for {@code character}. This should be
+     * called whenever the position of a registered character changes.
+     *
+     * @param character
+     *            the character whose position has changed.
+     */
+    public static void updatePosition(CharacterNode character) {
+        if (character.getType() == NodeType.PLAYER) {
+            players.getRegions().update((Player) character);
+        } else if (character.getType() == NodeType.NPC) {
+            npcs.getRegions().update((Npc) character);
+        }
     }
 
     /**
@@ -375,6 +464,7 @@ public final class World {
             World.getPlayers().remove(player);
             MinigameHandler.execute(player, m -> m.onLogout(player));
             player.getTradeSession().reset(false);
+            player.getPrivateMessage().unregister();
             player.getPrivateMessage().updateOtherList(false);
             if (FightCavesHandler.remove(player))
                 player.move(new Position(2399, 5177));
@@ -424,6 +514,24 @@ public final class World {
         return taskQueue;
     }
 
+    /**
+     * Gets the manager for game synchronization.
+     * 
+     * @return the synchronization executor.
+     */
+    public static GameSyncExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Gets the profiler for the phases of the update sequence.
+     * 
+     * @return the tick profiler.
+     */
+    public static TickProfiler getProfiler() {
+        return profiler;
+    }
+
     /**
      * Sets the value for {@link World.java#taskQueue}.
      * 
@@ -3,19 +3,25 @@ package com.asteria.game.character;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.asteria.game.NodeType;
 import com.asteria.game.character.player.IOState;
 import com.asteria.game.character.player.Player;
+import com.asteria.game.location.RegionIndex;
+import com.asteria.utility.TextUtils;
 
 /**
  * A collection that provides functionality for storing and managing characters.
@@ -25,6 +31,14 @@ import com.asteria.game.character.player.Player;
  * implementations, mainly due to the fact that it uses a {@link Queue} to cache
  * available slots in order to prevent expensive lookups needed to add a new
  * character.
+ * <p>
+ * <p>
+ * Alongside the slot array, the elements are kept packed together in a dense
+ * array that is compacted by moving the last element into the hole whenever
+ * an element is removed. Iterating over this collection only walks the dense
+ * array, which means it never encounters {@code null} elements and takes time
+ * proportional to the size of this collection rather than its capacity. The
+ * order of iteration is therefore not the order of the slots.
  *
  * @author lare96 <http://github.com/lare96>
  * @param <E>
@@ -37,12 +51,38 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
      */
     private E[] characters;
 
+    /**
+     * The array of {@link CharacterNode}s within this collection packed
+     * together, the first {@link CharacterList#size} elements are never
+     * {@code null}.
+     */
+    private E[] active;
+
+    /**
+     * The positions within {@link CharacterList#active} of the elements,
+     * indexed by their slot.
+     */
+    private final int[] positions;
+
     /**
      * The queue containing all of the cached slots that can be assigned to
      * {@link CharacterNode}s to prevent expensive lookups.
      */
     private final Queue<Integer> slotQueue = new ArrayDeque<>();
 
+    /**
+     * The spatial index that buckets the {@link CharacterNode}s within this
+     * collection by region.
+     */
+    private final RegionIndex<E> regions = new RegionIndex<>();
+
+    /**
+     * The index of username hashes to the {@link Player}s within this
+     * collection. This is concurrent because players are looked up from the
+     * login workers, and is always empty for collections of other characters.
+     */
+    private final Map<Long, E> usernames = new ConcurrentHashMap<>();
+
     /**
      * The finite capacity of this collection.
      */
@@ -63,6 +103,8 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
     public CharacterList(int capacity) {
         this.capacity = ++capacity;
         this.characters = (E[]) new CharacterNode[capacity];
+        this.active = (E[]) new CharacterNode[capacity];
+        this.positions = new int[capacity];
         this.size = 0;
         IntStream.rangeClosed(1, capacity).forEach(slotQueue::add);
     }
@@ -83,6 +125,11 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
             e.setRegistered(true);
             e.setSlot(slot);
             characters[slot] = e;
+            active[size] = e;
+            positions[slot] = size;
+            regions.add(e);
+            if (e.getType() == NodeType.PLAYER)
+                usernames.put(((Player) e).getUsernameHash(), e);
             e.create();
             size++;
             return true;
@@ -114,10 +161,17 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
 
         if (e.isRegistered() && characters[e.getSlot()] != null) {
             e.setRegistered(false);
+            regions.remove(e);
+            if (e.getType() == NodeType.PLAYER)
+                usernames.remove(((Player) e).getUsernameHash(), e);
+            int position = positions[e.getSlot()];
+            E last = active[--size];
+            active[position] = last;
+            positions[last.getSlot()] = position;
+            active[size] = null;
             e.dispose();
             characters[e.getSlot()] = null;
             slotQueue.add(e.getSlot());
-            size--;
             return true;
         }
         return false;
@@ -139,27 +193,32 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
     /**
      * {@inheritDoc}
      * <p>
-     * This implementation will exclude all elements with a value of
-     * {@code null} to avoid {@link NullPointerException}s.
+     * This implementation only walks the dense array of elements, and
+     * therefore never passes {@code null} to {@code action}. Elements must not
+     * be added or removed by {@code action}, use {@link #iterator()} to remove
+     * elements while iterating.
      */
     @Override
     public void forEach(Consumer<? super E> action) {
-        for (E e : characters) {
-            if (e == null)
-                continue;
-            action.accept(e);
-        }
+        for (int i = 0; i < size; i++)
+            action.accept(active[i]);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation splits the dense array of elements, and therefore
+     * never encounters {@code null} elements and splits evenly for parallel
+     * streams.
+     */
     @Override
     public Spliterator<E> spliterator() {
-        return Spliterators.spliterator(characters, Spliterator.ORDERED);
+        return Spliterators.spliterator(active, 0, size, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT);
     }
 
     /**
-     * Searches the backing array for the first element encountered that matches
-     * {@code filter}. This does not include elements with a value of
-     * {@code null}.
+     * Searches the dense array for the first element encountered that matches
+     * {@code filter}.
      *
      * @param filter
      *            the predicate that the search will be based on.
@@ -167,15 +226,47 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
      *         element was found.
      */
     public Optional<E> search(Predicate<? super E> filter) {
-        for (E e : characters) {
-            if (e == null)
-                continue;
-            if (filter.test(e))
-                return Optional.of(e);
+        for (int i = 0; i < size; i++) {
+            if (filter.test(active[i]))
+                return Optional.of(active[i]);
         }
         return Optional.empty();
     }
 
+    /**
+     * Retrieves the {@link Player} with {@code usernameHash} as their username
+     * hash from the username index, without searching this collection. This
+     * can be invoked from any thread.
+     *
+     * @param usernameHash
+     *            the username hash of the player.
+     * @return the player within an optional if found, or an empty optional if
+     *         not found.
+     */
+    public Optional<E> lookup(long usernameHash) {
+        return Optional.ofNullable(usernames.get(usernameHash));
+    }
+
+    /**
+     * Retrieves the {@link Player} with {@code username} as their username,
+     * ignoring case, from the username index without searching this
+     * collection. This can be invoked from any thread.
+     *
+     * @param username
+     *            the username of the player.
+     * @return the player within an optional if found, or an empty optional if
+     *         not found.
+     */
+    public Optional<E> lookup(String username) {
+        return lookup(TextUtils.nameToHash(username)).filter(e -> ((Player) e).getUsername().equalsIgnoreCase(username));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned iterator only walks the dense array of elements, and
+     * therefore never returns {@code null}.
+     */
     @Override
     public Iterator<E> iterator() {
         return new CharacterListIterator<>(this);
@@ -221,28 +312,56 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
     }
 
     /**
-     * Returns a sequential stream with this collection as its source.
+     * Returns a sequential stream with this collection as its source. The
+     * stream never contains {@code null} elements.
      *
      * @return a sequential stream over the elements in this collection.
      */
     public Stream<E> stream() {
-        return Arrays.stream(characters);
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream with this collection as its source. The
+     * stream never contains {@code null} elements.
+     *
+     * @return a parallel stream over the elements in this collection.
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
 
     /**
      * Removes all of the elements in this collection and resets the
-     * {@link CharacterList#characters} and {@link CharacterList#size}.
+     * {@link CharacterList#characters}, {@link CharacterList#active} and
+     * {@link CharacterList#size}.
      */
     @SuppressWarnings("unchecked")
     public void clear() {
-        forEach(this::remove);
+        for (E e : Arrays.copyOf(active, size))
+            remove(e);
         characters = (E[]) new CharacterNode[capacity];
+        active = (E[]) new CharacterNode[capacity];
+        regions.clear();
+        usernames.clear();
         size = 0;
     }
 
     /**
-     * An {@link Iterator} implementation that will iterate over the elements in
-     * a character list.
+     * Gets the spatial index that buckets the elements in this collection by
+     * region.
+     *
+     * @return the spatial index of this collection.
+     */
+    public RegionIndex<E> getRegions() {
+        return regions;
+    }
+
+    /**
+     * An {@link Iterator} implementation that will iterate over the dense array
+     * of elements in a character list. Because removing an element moves the
+     * last element into its position, the position is revisited after a
+     * removal so that no element is skipped.
      *
      * @param <E>
      *            the type of character being iterated over.
@@ -256,12 +375,14 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
         private final CharacterList<E> list;
 
         /**
-         * The current index that the iterator is iterating over.
+         * The current position within the dense array that the iterator is
+         * iterating over.
          */
         private int index;
 
         /**
-         * The last index that the iterator iterated over.
+         * The last position within the dense array that the iterator iterated
+         * over.
          */
         private int lastIndex = -1;
 
@@ -277,17 +398,17 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
 
         @Override
         public boolean hasNext() {
-            return !(index + 1 > list.capacity());
+            return index < list.size();
         }
 
         @Override
         public E next() {
-            if (index >= list.capacity()) {
-                throw new ArrayIndexOutOfBoundsException("There are no " + "elements left to iterate over!");
+            if (index >= list.size()) {
+                throw new NoSuchElementException("There are no " + "elements left to iterate over!");
             }
             lastIndex = index;
             index++;
-            return list.characters[lastIndex];
+            return list.active[lastIndex];
         }
 
         @Override
@@ -295,7 +416,8 @@ public final class CharacterList<E extends CharacterNode> implements Iterable<E>
             if (lastIndex == -1) {
                 throw new IllegalStateException("This method can only be " + "called once after \"next\".");
             }
-            list.remove(list.characters[lastIndex]);
+            if (list.remove(list.active[lastIndex]))
+                index = lastIndex;
             lastIndex = -1;
         }
     }
@@ -1,8 +1,8 @@
 package com.asteria.game.character;
 
 import com.asteria.game.NodeType;
-import com.asteria.game.World;
 import com.asteria.game.location.Position;
+import com.asteria.net.message.OutputMessages;
 
 /**
  * A container representing a graphic propelled through the air by some sort of
@@ -120,16 +120,11 @@ public final class Projectile {
     }
 
     /**
-     * Sends a projectile for everyone in the world based on the values in this
-     * container.
+     * Sends a projectile for everyone within viewing distance of the start
+     * position based on the values in this container.
      */
     public void sendProjectile() {
-        World.getPlayers().forEach(player -> {
-            if (start.isViewableFrom(player.getPosition())) {
-                player.getMessages().sendProjectile(start, offset, 0, speed, projectileId, startHeight, endHeight, lockon, delay);
-
-            }
-        });
+        OutputMessages.sendAllProjectile(start, offset, 0, speed, projectileId, startHeight, endHeight, lockon, delay);
     }
 
     /**
@@ -2,6 +2,7 @@ package com.asteria.game.character.npc;
 
 import java.util.Iterator;
 
+import com.asteria.game.GameConstants;
 import com.asteria.game.World;
 import com.asteria.game.character.Flag;
 import com.asteria.game.character.player.Player;
@@ -40,48 +41,53 @@ public final class NpcUpdating {
     public static void update(Player player) throws Exception {
         MessageBuilder out = MessageBuilder.create(2048);
         MessageBuilder block = MessageBuilder.create(1024);
-        out.newVarShortMessage(65);
-        out.startBitAccess();
-        out.putBits(8, player.getLocalNpcs().size());
-        for (Iterator<Npc> i = player.getLocalNpcs().iterator(); i.hasNext();) {
-            Npc npc = i.next();
-            if (npc.getPosition().isViewableFrom(player.getPosition()) && npc.isVisible()) {
-                NpcUpdating.updateNpcMovement(out, npc);
-                if (npc.getFlags().needsUpdate()) {
-                    NpcUpdating.updateState(block, npc);
-                }
-            } else {
-                out.putBit(true);
-                out.putBits(2, 3);
-                i.remove();
-            }
-        }
-        int added = 0;
-        for (Npc npc : World.getNpcs()) {
-            if (added == 15 || player.getLocalNpcs().size() >= 255)
-                break;
-            if (npc == null)
-                continue;
-            if (npc.getPosition().isViewableFrom(player.getPosition()) && npc.isVisible()) {
-                if (player.getLocalNpcs().add(npc)) {
-                    npc.getFlags().set(Flag.APPEARANCE);
-                    addNpc(out, player, npc);
+        try {
+            out.newVarShortMessage(65);
+            out.startBitAccess();
+            out.putBits(8, player.getLocalNpcs().size());
+            for (Iterator<Npc> i = player.getLocalNpcs().iterator(); i.hasNext();) {
+                Npc npc = i.next();
+                if (npc.getPosition().isViewableFrom(player.getPosition()) && npc.isVisible()) {
+                    NpcUpdating.updateNpcMovement(out, npc);
                     if (npc.getFlags().needsUpdate()) {
                         NpcUpdating.updateState(block, npc);
                     }
-                    added++;
+                } else {
+                    out.putBit(true);
+                    out.putBits(2, 3);
+                    i.remove();
                 }
             }
+            int added = 0;
+            for (Npc npc : World.getNpcs().getRegions().getWithin(player.getPosition(), GameConstants.VIEWING_DISTANCE)) {
+                if (added == 15 || player.getLocalNpcs().size() >= 255)
+                    break;
+                if (npc.getPosition().isViewableFrom(player.getPosition()) && npc.isVisible()) {
+                    if (player.getLocalNpcs().add(npc)) {
+                        npc.getFlags().set(Flag.APPEARANCE);
+                        addNpc(out, player, npc);
+                        if (npc.getFlags().needsUpdate()) {
+                            NpcUpdating.updateState(block, npc);
+                        }
+                        added++;
+                    }
+                }
+            }
+            if (block.buffer().writerIndex() > 0) {
+                out.putBits(14, 16383);
+                out.endBitAccess();
+                out.putBytes(block.buffer());
+            } else {
+                out.endBitAccess();
+            }
+            out.endVarShortMessage();
+            player.getSession().queue(out);
+        } catch (Exception e) {
+            out.release();
+            throw e;
+        } finally {
+            block.release();
         }
-        if (block.buffer().writerIndex() > 0) {
-            out.putBits(14, 16383);
-            out.endBitAccess();
-            out.putBytes(block.buffer());
-        } else {
-            out.endBitAccess();
-        }
-        out.endVarShortMessage();
-        player.getSession().queue(out);
     }
 
     /**
@@ -85,6 +85,12 @@ public final class Appearance {
      */
     private int skinColor;
 
+    /**
+     * The version of these appearance values, incremented every time any of
+     * them are changed.
+     */
+    private int version;
+
     /**
      * Creates a new {@link Appearance} with the default appearance values.
      */
@@ -146,6 +152,7 @@ public final class Appearance {
         legColor = values[10];
         feetColor = values[11];
         skinColor = values[12];
+        version++;
     }
 
     /**
@@ -175,6 +182,7 @@ public final class Appearance {
      */
     public void setGender(int gender) {
         this.gender = gender;
+        version++;
     }
 
     /**
@@ -194,6 +202,7 @@ public final class Appearance {
      */
     public void setChest(int chest) {
         this.chest = chest;
+        version++;
     }
 
     /**
@@ -213,6 +222,7 @@ public final class Appearance {
      */
     public void setArms(int arms) {
         this.arms = arms;
+        version++;
     }
 
     /**
@@ -232,6 +242,7 @@ public final class Appearance {
      */
     public void setLegs(int legs) {
         this.legs = legs;
+        version++;
     }
 
     /**
@@ -251,6 +262,7 @@ public final class Appearance {
      */
     public void setHead(int head) {
         this.head = head;
+        version++;
     }
 
     /**
@@ -270,6 +282,7 @@ public final class Appearance {
      */
     public void setHands(int hands) {
         this.hands = hands;
+        version++;
     }
 
     /**
@@ -289,6 +302,7 @@ public final class Appearance {
      */
     public void setFeet(int feet) {
         this.feet = feet;
+        version++;
     }
 
     /**
@@ -308,6 +322,7 @@ public final class Appearance {
      */
     public void setBeard(int beard) {
         this.beard = beard;
+        version++;
     }
 
     /**
@@ -327,6 +342,7 @@ public final class Appearance {
      */
     public void setHairColor(int hairColor) {
         this.hairColor = hairColor;
+        version++;
     }
 
     /**
@@ -346,6 +362,7 @@ public final class Appearance {
      */
     public void setTorsoColor(int torsoColor) {
         this.torsoColor = torsoColor;
+        version++;
     }
 
     /**
@@ -365,6 +382,7 @@ public final class Appearance {
      */
     public void setLegColor(int legColor) {
         this.legColor = legColor;
+        version++;
     }
 
     /**
@@ -384,6 +402,7 @@ public final class Appearance {
      */
     public void setFeetColor(int feetColor) {
         this.feetColor = feetColor;
+        version++;
     }
 
     /**
@@ -403,5 +422,16 @@ public final class Appearance {
      */
     public void setSkinColor(int skinColor) {
         this.skinColor = skinColor;
+        version++;
+    }
+
+    /**
+     * Gets the version of these appearance values, used to determine if a
+     * previously encoded appearance block is still valid.
+     *
+     * @return the version of these values.
+     */
+    public int getVersion() {
+        return version;
     }
 }
\ No newline at end of file
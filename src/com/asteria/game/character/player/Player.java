@@ -1,7 +1,5 @@
 package com.asteria.game.character.player;
 
-import io.netty.buffer.ByteBuf;
-
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashSet;
@@ -43,7 +41,9 @@ import com.asteria.game.character.player.content.WeaponInterface;
 import com.asteria.game.character.player.dialogue.DialogueChainBuilder;
 import com.asteria.game.character.player.dialogue.OptionType;
 import com.asteria.game.character.player.minigame.MinigameHandler;
+import com.asteria.game.character.player.serialize.PlayerSaveQueue;
 import com.asteria.game.character.player.serialize.PlayerSerialization;
+import com.asteria.game.character.player.serialize.PlayerSnapshot;
 import com.asteria.game.character.player.skill.Skill;
 import com.asteria.game.character.player.skill.Skills;
 import com.asteria.game.item.Item;
@@ -370,9 +370,15 @@ public final class Player extends CharacterNode {
     private int playerNpc = -1;
 
     /**
-     * The cached player update block for updating.
+     * The cache of update blocks encoded for this player this sequence.
+     */
+    private final UpdateBlockCache updateBlockCache = new UpdateBlockCache();
+
+    /**
+     * The version of the appearance state for this player that isn't covered
+     * by {@link Appearance#getVersion()}, such as equipment, icons and levels.
      */
-    private ByteBuf cachedUpdateBlock;
+    private int appearanceVersion;
 
     /**
      * The username hash for this player.
@@ -420,6 +426,7 @@ public final class Player extends CharacterNode {
         equipment.refresh();
         inventory.refresh();
         encoder.sendPrivateMessageListStatus(2);
+        privateMessage.register();
         privateMessage.updateThisList();
         privateMessage.updateOtherList(true);
         encoder.sendContextMenu(4, "Trade with");
@@ -669,18 +676,31 @@ public final class Player extends CharacterNode {
         getMovementQueue().reset();
         encoder.sendCloseWindows();
         super.setPosition(position.copy());
+        World.updatePosition(this);
         setResetMovementQueue(true);
         setNeedsPlacement(true);
         encoder.sendMapRegion();
     }
 
     /**
-     * Saves the character file for this player.
+     * Requests that the character file for this player is saved by the
+     * write-behind {@link PlayerSaveQueue}.
      */
     public void save() {
         if (session.getState() != IOState.LOGGED_IN && session.getState() != IOState.LOGGING_OUT)
             return;
-        World.getService().submit(() -> new PlayerSerialization(this).serialize());
+        PlayerSerialization.getSaveQueue().submit(this);
+    }
+
+    /**
+     * Takes an immutable snapshot of the persistable state of this player,
+     * which can then be serialized on any thread. This should only ever be
+     * invoked on the game thread.
+     *
+     * @return the snapshot of this player.
+     */
+    public PlayerSnapshot snapshot() {
+        return new PlayerSnapshot(this);
     }
 
     /**
@@ -1274,6 +1294,7 @@ public final class Player extends CharacterNode {
      */
     public void setWeaponAnimation(WeaponAnimation weaponAnimation) {
         this.weaponAnimation = weaponAnimation;
+        appearanceVersion++;
     }
 
     /**
@@ -1484,6 +1505,7 @@ public final class Player extends CharacterNode {
      */
     public void setHeadIcon(int headIcon) {
         this.headIcon = headIcon;
+        appearanceVersion++;
     }
 
     /**
@@ -1503,6 +1525,7 @@ public final class Player extends CharacterNode {
      */
     public void setSkullIcon(int skullIcon) {
         this.skullIcon = skullIcon;
+        appearanceVersion++;
     }
 
     /**
@@ -1697,25 +1720,34 @@ public final class Player extends CharacterNode {
      */
     public void setPlayerNpc(int playerNpc) {
         this.playerNpc = playerNpc;
+        appearanceVersion++;
     }
 
     /**
-     * Gets the cached player update block for updating.
+     * Gets the cache of update blocks encoded for this player this sequence.
      *
-     * @return the cached update block.
+     * @return the update block cache.
      */
-    public ByteBuf getCachedUpdateBlock() {
-        return cachedUpdateBlock;
+    public UpdateBlockCache getUpdateBlockCache() {
+        return updateBlockCache;
     }
 
     /**
-     * Sets the value for {@link Player#cachedUpdateBlock}.
+     * Flags the encoded appearance block of this player as outdated, so that
+     * it's encoded again the next time it's needed.
+     */
+    public void invalidateAppearance() {
+        appearanceVersion++;
+    }
+
+    /**
+     * Gets the version of the appearance state for this player. This value
+     * changes every time anything written in the appearance block changes.
      *
-     * @param cachedUpdateBlock
-     *            the new value to set.
+     * @return the appearance version.
      */
-    public void setCachedUpdateBlock(ByteBuf cachedUpdateBlock) {
-        this.cachedUpdateBlock = cachedUpdateBlock;
+    public int getAppearanceVersion() {
+        return appearanceVersion + appearance.getVersion();
     }
 
     /**
@@ -1,7 +1,10 @@
 package com.asteria.game.character.player;
 
+import io.netty.buffer.ByteBuf;
+
 import java.util.Iterator;
 
+import com.asteria.game.GameConstants;
 import com.asteria.game.World;
 import com.asteria.game.character.Flag;
 import com.asteria.game.character.player.skill.Skills;
@@ -41,49 +44,56 @@ public final class PlayerUpdating {
     public static void update(Player player) throws Exception {
         MessageBuilder out = MessageBuilder.create(16384);
         MessageBuilder block = MessageBuilder.create(8192);
-        out.newVarShortMessage(81);
-        out.startBitAccess();
-        PlayerUpdating.updateLocalPlayerMovement(player, out);
-        if (player.getFlags().needsUpdate())
-            PlayerUpdating.updateState(player, player, block, false, true);
-        out.putBits(8, player.getLocalPlayers().size());
-        for (Iterator<Player> i = player.getLocalPlayers().iterator(); i.hasNext();) {
-            Player other = i.next();
-            if (other.getPosition().isViewableFrom(player.getPosition()) && other.getSession().getState() == IOState.LOGGED_IN && !other
-                .isNeedsPlacement() && other.isVisible()) {
-                PlayerUpdating.updateOtherPlayerMovement(other, out);
-                if (other.getFlags().needsUpdate()) {
-                    PlayerUpdating.updateState(other, player, block, false, false);
+        try {
+            out.newVarShortMessage(81);
+            out.startBitAccess();
+            PlayerUpdating.updateLocalPlayerMovement(player, out);
+            if (player.getFlags().needsUpdate())
+                PlayerUpdating.updateState(player, player, block, false, true);
+            out.putBits(8, player.getLocalPlayers().size());
+            for (Iterator<Player> i = player.getLocalPlayers().iterator(); i.hasNext();) {
+                Player other = i.next();
+                if (other.getPosition().isViewableFrom(player.getPosition()) && other.getSession().getState() == IOState.LOGGED_IN && !other
+                    .isNeedsPlacement() && other.isVisible()) {
+                    PlayerUpdating.updateOtherPlayerMovement(other, out);
+                    if (other.getFlags().needsUpdate()) {
+                        PlayerUpdating.updateState(other, player, block, false, false);
+                    }
+                } else {
+                    out.putBit(true);
+                    out.putBits(2, 3);
+                    i.remove();
                 }
-            } else {
-                out.putBit(true);
-                out.putBits(2, 3);
-                i.remove();
             }
-        }
-        int added = 0;
-        for (Player other : World.getPlayers()) {
-            if (added == 15 || player.getLocalPlayers().size() >= 255)
-                break;
-            if (other == null || other.equals(player) || other.getSession().getState() != IOState.LOGGED_IN)
-                continue;
-            if (other.getPosition().isViewableFrom(player.getPosition()) && other.isVisible()) {
-                if (player.getLocalPlayers().add(other)) {
-                    added++;
-                    PlayerUpdating.addPlayer(out, player, other);
-                    PlayerUpdating.updateState(other, player, block, true, false);
+            int added = 0;
+            for (Player other : World.getPlayers().getRegions().getWithin(player.getPosition(), GameConstants.VIEWING_DISTANCE)) {
+                if (added == 15 || player.getLocalPlayers().size() >= 255)
+                    break;
+                if (other.equals(player) || other.getSession().getState() != IOState.LOGGED_IN)
+                    continue;
+                if (other.getPosition().isViewableFrom(player.getPosition()) && other.isVisible()) {
+                    if (player.getLocalPlayers().add(other)) {
+                        added++;
+                        PlayerUpdating.addPlayer(out, player, other);
+                        PlayerUpdating.updateState(other, player, block, true, false);
+                    }
                 }
             }
+            if (block.buffer().writerIndex() > 0) {
+                out.putBits(11, 2047);
+                out.endBitAccess();
+                out.putBytes(block.buffer());
+            } else {
+                out.endBitAccess();
+            }
+            out.endVarShortMessage();
+            player.getSession().queue(out);
+        } catch (Exception e) {
+            out.release();
+            throw e;
+        } finally {
+            block.release();
         }
-        if (block.buffer().writerIndex() > 0) {
-            out.putBits(11, 2047);
-            out.endBitAccess();
-            out.putBytes(block.buffer());
-        } else {
-            out.endBitAccess();
-        }
-        out.endVarShortMessage();
-        player.getSession().queue(out);
     }
 
     /**
@@ -102,7 +112,9 @@ public final class PlayerUpdating {
     }
 
     /**
-     * Appends the state of appearance to {@code out} for {@code player}.
+     * Appends the state of appearance to {@code out} for {@code player}. The
+     * appearance segment is only encoded again if the appearance version of
+     * the player has changed since it was last encoded.
      *
      * @param player
      *            the player to append the state for.
@@ -110,6 +122,27 @@ public final class PlayerUpdating {
      *            the buffer to append it to.
      */
     private static void appendAppearance(Player player, MessageBuilder out) {
+        UpdateBlockCache cache = player.getUpdateBlockCache();
+        synchronized (cache) {
+            int version = player.getAppearanceVersion();
+            byte[] appearance = cache.getAppearance(version);
+            if (appearance == null) {
+                appearance = encodeAppearance(player);
+                cache.setAppearance(version, appearance);
+            }
+            out.put(appearance.length, ValueType.C);
+            out.putBytes(appearance, appearance.length);
+        }
+    }
+
+    /**
+     * Encodes the appearance segment for {@code player}.
+     *
+     * @param player
+     *            the player to encode the appearance segment for.
+     * @return the encoded appearance segment.
+     */
+    private static byte[] encodeAppearance(Player player) {
         Appearance appearance = player.getAppearance();
         MessageBuilder block = MessageBuilder.create(128);
         block.put(appearance.getGender());
@@ -211,8 +244,10 @@ public final class PlayerUpdating {
         block.put(player.determineCombatLevel());
         block.putShort(0);
 
-        out.put(block.buffer().writerIndex(), ValueType.C);
-        out.putBytes(block.buffer());
+        byte[] encoded = new byte[block.buffer().writerIndex()];
+        block.buffer().getBytes(0, encoded);
+        block.release();
+        return encoded;
     }
 
     /**
@@ -305,12 +340,14 @@ public final class PlayerUpdating {
     }
 
     /**
-     * Updates the state of {@code thisPlayer} for {@code player}.
+     * Updates the state of {@code player} for {@code thisPlayer}. The block
+     * sent to other players is only ever encoded once per sequence, every
+     * other viewer simply copies the cached bytes.
      *
      * @param player
-     *            the player to update the state for.
-     * @param thisPlayer
      *            the player who's state is being updated.
+     * @param thisPlayer
+     *            the player to update the state for.
      * @param block
      *            the buffer that the data will be written to.
      * @param forceAppearance
@@ -323,11 +360,43 @@ public final class PlayerUpdating {
     private static void updateState(Player player, Player thisPlayer, MessageBuilder block, boolean forceAppearance, boolean noChat) throws Exception {
         if (!player.getFlags().needsUpdate() && !forceAppearance)
             return;
-        if (player.getCachedUpdateBlock() != null && !player.equals(thisPlayer) && !forceAppearance && !noChat) {
-            block.putBytes(player.getCachedUpdateBlock());
-            return;
+        UpdateBlockCache cache = player.getUpdateBlockCache();
+        synchronized (cache) {
+            if (player.equals(thisPlayer) || noChat) {
+                encodeState(player, block, forceAppearance, noChat);
+                return;
+            }
+            ByteBuf cached = cache.get(forceAppearance);
+            if (cached == null) {
+                MessageBuilder encoded = MessageBuilder.create(300);
+                try {
+                    encodeState(player, encoded, forceAppearance, false);
+                } catch (Exception e) {
+                    encoded.release();
+                    throw e;
+                }
+                cached = encoded.buffer();
+                cache.set(forceAppearance, cached);
+            }
+            block.putBytes(cached);
         }
-        MessageBuilder cachedBuffer = MessageBuilder.create(300);
+    }
+
+    /**
+     * Encodes the state of {@code player} to {@code out}.
+     *
+     * @param player
+     *            the player who's state is being encoded.
+     * @param out
+     *            the buffer that the data will be written to.
+     * @param forceAppearance
+     *            if the appearance block is being forced.
+     * @param noChat
+     *            if the chat block is being disabled.
+     * @throws Exception
+     *             if any errors occur while encoding the state.
+     */
+    private static void encodeState(Player player, MessageBuilder out, boolean forceAppearance, boolean noChat) throws Exception {
         BitMask mask = new BitMask();
 
         if (player.getFlags().get(Flag.FORCED_MOVEMENT)) {
@@ -362,45 +431,41 @@ public final class PlayerUpdating {
         }
         if (mask.get() >= 0x100) {
             mask.set(0x40);
-            cachedBuffer.putShort(mask.get(), ByteOrder.LITTLE);
+            out.putShort(mask.get(), ByteOrder.LITTLE);
         } else {
-            cachedBuffer.put(mask.get());
+            out.put(mask.get());
         }
 
         if (player.getFlags().get(Flag.FORCED_MOVEMENT)) {
-            // appendForcedMovement(player, cachedBuffer);
+            // appendForcedMovement(player, out);
         }
         if (player.getFlags().get(Flag.GRAPHICS)) {
-            appendGraphic(player, cachedBuffer);
+            appendGraphic(player, out);
         }
         if (player.getFlags().get(Flag.ANIMATION)) {
-            appendAnimation(player, cachedBuffer);
+            appendAnimation(player, out);
         }
         if (player.getFlags().get(Flag.FORCED_CHAT)) {
-            appendForcedChat(player, cachedBuffer);
+            appendForcedChat(player, out);
         }
         if (player.getFlags().get(Flag.CHAT) && !noChat) {
-            appendChat(player, cachedBuffer);
+            appendChat(player, out);
         }
         if (player.getFlags().get(Flag.FACE_CHARACTER)) {
-            appendFaceCharacter(player, cachedBuffer);
+            appendFaceCharacter(player, out);
         }
         if (player.getFlags().get(Flag.APPEARANCE) || forceAppearance) {
-            appendAppearance(player, cachedBuffer);
+            appendAppearance(player, out);
         }
         if (player.getFlags().get(Flag.FACE_COORDINATE)) {
-            appendFaceCoordinates(player, cachedBuffer);
+            appendFaceCoordinates(player, out);
         }
         if (player.getFlags().get(Flag.HIT)) {
-            appendPrimaryHit(player, cachedBuffer);
+            appendPrimaryHit(player, out);
         }
         if (player.getFlags().get(Flag.HIT_2)) {
-            appendSecondaryHit(player, cachedBuffer);
-        }
-        if (!player.equals(thisPlayer) && !forceAppearance && !noChat) {
-            player.setCachedUpdateBlock(cachedBuffer.buffer());
+            appendSecondaryHit(player, out);
         }
-        block.putBytes(cachedBuffer.buffer());
     }
 
     /**
@@ -0,0 +1,124 @@
+package com.asteria.game.character.player;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The cache that holds the update blocks encoded for a {@link Player} during
+ * the current sequence, as well as the encoded appearance segment which is
+ * reused across sequences until {@link Player#getAppearanceVersion()}
+ * changes. Every viewer of a player copies the bytes out of this cache, which
+ * means that each variant of the update block is encoded at most once per
+ * sequence regardless of how many players are viewing it.
+ * <p>
+ * <p>
+ * The cache itself is used as the mutex while a block is being encoded, so
+ * that concurrent viewers never encode the same block twice.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class UpdateBlockCache {
+
+    /**
+     * The cached update block sent to players that already have this player in
+     * their local list.
+     */
+    private ByteBuf block;
+
+    /**
+     * The cached update block with a forced appearance segment, sent to
+     * players that are adding this player to their local list.
+     */
+    private ByteBuf forcedBlock;
+
+    /**
+     * The encoded appearance segment, kept across sequences until the
+     * appearance of the player changes.
+     */
+    private byte[] appearance;
+
+    /**
+     * The appearance version that {@link #appearance} was encoded at.
+     */
+    private int appearanceVersion;
+
+    /**
+     * Retrieves the cached update block.
+     *
+     * @param forceAppearance
+     *            if the variant with a forced appearance segment should be
+     *            retrieved.
+     * @return the cached block, or {@code null} if it has not been encoded
+     *         this sequence.
+     */
+    public ByteBuf get(boolean forceAppearance) {
+        return forceAppearance ? forcedBlock : block;
+    }
+
+    /**
+     * Caches {@code buf} as the update block for the rest of this sequence.
+     * Ownership of the buffer is transferred to this cache.
+     *
+     * @param forceAppearance
+     *            if the block is the variant with a forced appearance segment.
+     * @param buf
+     *            the encoded block to cache.
+     */
+    public void set(boolean forceAppearance, ByteBuf buf) {
+        if (forceAppearance) {
+            release(forcedBlock);
+            forcedBlock = buf;
+        } else {
+            release(block);
+            block = buf;
+        }
+    }
+
+    /**
+     * Retrieves the encoded appearance segment, if it is still valid.
+     *
+     * @param version
+     *            the current appearance version of the player.
+     * @return the encoded appearance segment, or {@code null} if it was never
+     *         encoded or is outdated.
+     */
+    public byte[] getAppearance(int version) {
+        return appearance != null && appearanceVersion == version ? appearance : null;
+    }
+
+    /**
+     * Caches {@code appearance} as the encoded appearance segment for
+     * {@code version}. Unlike the update blocks, this segment is not cleared
+     * at the end of the sequence.
+     *
+     * @param version
+     *            the appearance version the segment was encoded at.
+     * @param appearance
+     *            the encoded appearance segment.
+     */
+    public void setAppearance(int version, byte[] appearance) {
+        this.appearanceVersion = version;
+        this.appearance = appearance;
+    }
+
+    /**
+     * Releases and clears both of the cached update blocks. This should be
+     * called at the end of every sequence.
+     */
+    public synchronized void clear() {
+        release(block);
+        release(forcedBlock);
+        block = null;
+        forcedBlock = null;
+    }
+
+    /**
+     * Releases {@code buf} if it isn't {@code null}.
+     *
+     * @param buf
+     *            the buffer to release.
+     */
+    private void release(ByteBuf buf) {
+        if (buf != null)
+            buf.release();
+    }
+}
@@ -1,5 +1,10 @@
 package com.asteria.game.character.player.content;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 import com.asteria.game.World;
 import com.asteria.game.character.player.Player;
 import com.asteria.utility.MutableNumber;
@@ -11,6 +16,15 @@ import com.asteria.utility.MutableNumber;
  */
 public final class PrivateMessage {
 
+    /**
+     * The reverse friends index, mapping username hashes to the online players
+     * that have that username on their friends list. Players are indexed when
+     * they log in and removed when they log out, so only the players that care
+     * are notified when someone logs in or out. This is only ever accessed on
+     * the game thread.
+     */
+    private static final Map<Long, Set<Player>> FOLLOWERS = new HashMap<>();
+
     /**
      * The player this private messaging list belongs to.
      */
@@ -45,18 +59,58 @@ public final class PrivateMessage {
 
     /**
      * Updates {@code player} friends lists with with whether they are online or
-     * offline.
+     * offline. Only the online players that have {@code player} on their
+     * friends list are updated.
      *
      * @param online
      *            the status to update the other players friends lists with.
      */
     public void updateOtherList(boolean online) {
-        for (Player players : World.getPlayers()) {
-            if (players == null)
-                continue;
-            if (players.getFriends().contains(player.getUsernameHash()))
-                players.getMessages().sendPrivateMessageFriend(player.getUsernameHash(), online);
-        }
+        Set<Player> followers = FOLLOWERS.get(player.getUsernameHash());
+        if (followers == null)
+            return;
+        long name = player.getUsernameHash();
+        followers.forEach(p -> p.getMessages().sendPrivateMessageFriend(name, online));
+    }
+
+    /**
+     * Adds {@code player} to the reverse friends index of every player on
+     * their friends list. This should be invoked once when {@code player}
+     * logs in.
+     */
+    public void register() {
+        player.getFriends().forEach(this::follow);
+    }
+
+    /**
+     * Removes {@code player} from the reverse friends index of every player on
+     * their friends list. This should be invoked once when {@code player}
+     * logs out.
+     */
+    public void unregister() {
+        player.getFriends().forEach(this::unfollow);
+    }
+
+    /**
+     * Adds {@code player} to the reverse friends index of {@code name}.
+     *
+     * @param name
+     *            the username hash of the friend.
+     */
+    private void follow(long name) {
+        FOLLOWERS.computeIfAbsent(name, n -> new HashSet<>()).add(player);
+    }
+
+    /**
+     * Removes {@code player} from the reverse friends index of {@code name}.
+     *
+     * @param name
+     *            the username hash of the friend.
+     */
+    private void unfollow(long name) {
+        Set<Player> followers = FOLLOWERS.get(name);
+        if (followers != null && followers.remove(player) && followers.isEmpty())
+            FOLLOWERS.remove(name);
     }
 
     /**
@@ -71,6 +125,7 @@ public final class PrivateMessage {
             return;
         }
         if (player.getFriends().add(name)) {
+            follow(name);
             player.getMessages().sendPrivateMessageFriend(name, World.getPlayer(name).isPresent());
         } else {
             player.getMessages().sendMessage("They are already on your friends" + " list!");
@@ -101,7 +156,9 @@ public final class PrivateMessage {
     public void removeFriend(long name) {
         if (!player.getFriends().remove(name)) {
             player.getMessages().sendMessage("They are not on your friends " + "list.");
+            return;
         }
+        unfollow(name);
     }
 
     /**
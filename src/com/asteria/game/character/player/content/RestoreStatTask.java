@@ -25,10 +25,6 @@ public final class RestoreStatTask extends Task {
     @Override
     public void execute() {
         for (Player player : World.getPlayers()) {
-            if (player == null) {
-                continue;
-            }
-
             for (int i = 0; i < player.getSkills().length; i++) {
                 int realLevel = player.getSkills()[i].getRealLevel();
                 if (i == Skills.HITPOINTS) {
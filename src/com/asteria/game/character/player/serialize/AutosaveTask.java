@@ -0,0 +1,61 @@
+package com.asteria.game.character.player.serialize;
+
+import java.util.concurrent.TimeUnit;
+
+import com.asteria.game.GameConstants;
+import com.asteria.game.World;
+import com.asteria.game.character.CharacterList;
+import com.asteria.game.character.player.Player;
+import com.asteria.task.Task;
+
+/**
+ * The task that periodically saves every online player, spread evenly across
+ * every tick within {@link GameConstants#AUTOSAVE_MINUTES} rather than saving
+ * every player at once. Every tick a fixed amount of player slots are visited,
+ * picking up where the last tick left off, so that every slot is visited
+ * exactly once per window.
+ * <p>
+ * <p>
+ * Players whose state hasn't changed since their last save are skipped by the
+ * {@link PlayerSaveQueue} without writing anything.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class AutosaveTask extends Task {
+
+    /**
+     * The amount of ticks it takes to visit every player slot once.
+     */
+    private static final int WINDOW = (int) Math.max(1, TimeUnit.MINUTES.toMillis(GameConstants.AUTOSAVE_MINUTES)
+        / GameConstants.CYCLE_RATE);
+
+    /**
+     * The slot that will be visited next.
+     */
+    private int cursor;
+
+    /**
+     * Creates a new {@link AutosaveTask}.
+     */
+    public AutosaveTask() {
+        super(1, false);
+    }
+
+    @Override
+    public void execute() {
+        CharacterList<Player> players = World.getPlayers();
+        int capacity = players.capacity();
+        int amount = (capacity + WINDOW - 1) / WINDOW;
+        for (int i = 0; i < amount; i++) {
+            Player player = players.get(cursor);
+            if (player != null)
+                player.save();
+            cursor = (cursor + 1) % capacity;
+        }
+    }
+
+    @Override
+    public void onCancel() {
+        World.submit(new AutosaveTask());
+    }
+}
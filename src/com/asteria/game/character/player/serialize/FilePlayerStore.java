@@ -0,0 +1,185 @@
+package com.asteria.game.character.player.serialize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.asteria.game.GameConstants;
+
+/**
+ * The {@link PlayerStore} implementation that saves every character file to
+ * its own file, named after the username of the player. Binary character files
+ * are given the {@code .bin} extension and {@code JSON} character files are
+ * given the {@code .json} extension.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class FilePlayerStore implements PlayerStore {
+
+    /**
+     * The extension of character files written in the binary format.
+     */
+    private static final String BINARY_EXTENSION = ".bin";
+
+    /**
+     * The extension of character files written in the {@code JSON} format.
+     */
+    private static final String JSON_EXTENSION = ".json";
+
+    /**
+     * The extension of the temporary files character files are written to
+     * before replacing the actual character file.
+     */
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**
+     * The directory that the character files are held in.
+     */
+    private final Path directory;
+
+    /**
+     * Creates a new {@link FilePlayerStore}.
+     *
+     * @param directory
+     *            the directory that the character files are held in.
+     */
+    public FilePlayerStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String toString() {
+        return "FILE_STORE[directory= " + directory + "]";
+    }
+
+    @Override
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public Optional<ByteBuffer> load(String username, long usernameHash) throws IOException {
+        Optional<Path> cf = find(username);
+        if (!cf.isPresent())
+            return Optional.empty();
+        return Optional.of(ByteBuffer.wrap(Files.readAllBytes(cf.get())));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <p>
+     * The character file is written and flushed to a temporary file first,
+     * which then atomically replaces the character file so that it can never
+     * be left partially written. The character file in the other format is
+     * deleted afterwards, if there is one, so that there's only ever a single
+     * character file for every player.
+     */
+    @Override
+    public void save(String username, long usernameHash, ByteBuffer buf) throws IOException {
+        boolean binary = PlayerBinaryFormat.isBinary(buf);
+        Path cf = directory.resolve(username + (binary ? BINARY_EXTENSION : JSON_EXTENSION));
+        Path temporary = cf.resolveSibling(cf.getFileName() + TEMPORARY_EXTENSION);
+        Files.createDirectories(directory);
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer src = buf.duplicate();
+            while (src.hasRemaining())
+                out.write(src);
+            out.force(true);
+        }
+        try {
+            Files.move(temporary, cf, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, cf, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.deleteIfExists(directory.resolve(username + (binary ? JSON_EXTENSION : BINARY_EXTENSION)));
+    }
+
+    @Override
+    public boolean exists(String username, long usernameHash) {
+        return find(username).isPresent();
+    }
+
+    @Override
+    public Collection<String> usernames() throws IOException {
+        Set<String> usernames = new LinkedHashSet<>();
+        if (!Files.isDirectory(directory))
+            return usernames;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*{" + BINARY_EXTENSION + "," + JSON_EXTENSION + "}")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                usernames.add(name.substring(0, name.lastIndexOf('.')));
+            }
+        }
+        return usernames;
+    }
+
+    /**
+     * Converts every character file that isn't already in the requested
+     * format, replacing the original character file. This can be used to
+     * migrate existing {@code JSON} character files to the binary format, or
+     * to convert binary character files to {@code JSON} for inspection.
+     * <p>
+     * <p>
+     * This should never be invoked while the players whose character files
+     * are being converted are online.
+     *
+     * @param binary
+     *            {@code true} to convert to the binary format, {@code false}
+     *            to convert to the {@code JSON} format.
+     * @return the amount of character files converted.
+     * @throws IOException
+     *             if any I/O errors occur while converting.
+     */
+    public int convert(boolean binary) throws IOException {
+        if (!Files.isDirectory(directory))
+            return 0;
+        String from = binary ? JSON_EXTENSION : BINARY_EXTENSION;
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + from)) {
+            stream.forEach(files::add);
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+            save(name.substring(0, name.length() - from.length()), 0, PlayerSerialization.convert(buf, binary));
+        }
+        return files.size();
+    }
+
+    /**
+     * Finds the character file of a player, preferring the format that is
+     * currently being written.
+     *
+     * @param username
+     *            the username of the player.
+     * @return the character file, or an empty optional if the player has no
+     *         character file.
+     */
+    private Optional<Path> find(String username) {
+        Path binary = directory.resolve(username + BINARY_EXTENSION);
+        Path json = directory.resolve(username + JSON_EXTENSION);
+        Path preferred = GameConstants.BINARY_SAVES ? binary : json;
+        Path other = GameConstants.BINARY_SAVES ? json : binary;
+        if (Files.exists(preferred))
+            return Optional.of(preferred);
+        return Files.exists(other) ? Optional.of(other) : Optional.empty();
+    }
+}
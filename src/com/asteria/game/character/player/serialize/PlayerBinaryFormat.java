@@ -0,0 +1,459 @@
+package com.asteria.game.character.player.serialize;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.asteria.game.character.combat.weapon.FightType;
+import com.asteria.game.character.player.Player;
+import com.asteria.game.character.player.Rights;
+import com.asteria.game.character.player.content.Spellbook;
+import com.asteria.game.character.player.skill.Skill;
+import com.asteria.game.item.Item;
+import com.asteria.game.location.Position;
+import com.google.common.base.Preconditions;
+
+/**
+ * The compact binary format that character files can be written in, as an
+ * alternative to {@code JSON}. The format holds exactly the same state as the
+ * {@code JSON} format, which means character files can be freely converted
+ * between the two formats.
+ * <p>
+ * <p>
+ * A binary character file starts with {@link #MAGIC} and {@link #VERSION},
+ * followed by every field of a {@link PlayerSnapshot} in a fixed order, so no
+ * names or types are written at all. Integers are written as variable length
+ * quantities, which means item identifiers and amounts, along with most other
+ * values, only take up a byte or two. Character files are encoded straight
+ * from snapshots and decoded straight into players, without ever building a
+ * {@code JSON} tree.
+ * <p>
+ * <p>
+ * The order of the fields must never change without bumping
+ * {@link #VERSION}, new fields can only be appended to the end.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class PlayerBinaryFormat {
+
+    /**
+     * The value every binary character file starts with, used to tell binary
+     * character files apart from {@code JSON} character files.
+     */
+    public static final int MAGIC = 0x41535450;
+
+    /**
+     * The version of the format written by this encoder. Character files with
+     * a different version than this are not able to be decoded.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * The default constructor.
+     *
+     * @throws UnsupportedOperationException
+     *             if this class is instantiated.
+     */
+    private PlayerBinaryFormat() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Determines if {@code buf} holds a binary character file. The position of
+     * the buffer is not changed.
+     *
+     * @param buf
+     *            the buffer to determine this for.
+     * @return {@code true} if the buffer holds a binary character file,
+     *         {@code false} otherwise.
+     */
+    public static boolean isBinary(ByteBuffer buf) {
+        return buf.remaining() >= 4 && buf.getInt(buf.position()) == MAGIC;
+    }
+
+    /**
+     * Encodes every field of {@code snapshot} into a binary character file.
+     *
+     * @param snapshot
+     *            the snapshot to encode.
+     * @return the buffer containing the character file, ready to be read.
+     */
+    public static ByteBuffer encode(PlayerSnapshot snapshot) {
+        BinaryWriter out = new BinaryWriter(1024);
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.putString(snapshot.getUsername());
+        out.putString(snapshot.getPassword());
+        Position position = snapshot.getPosition();
+        out.putSignedVarLong(position.getX());
+        out.putSignedVarLong(position.getY());
+        out.putSignedVarLong(position.getZ());
+        out.putString(snapshot.getRights().name());
+        int[] appearance = snapshot.getAppearance();
+        out.putVarInt(appearance.length);
+        for (int value : appearance)
+            out.putSignedVarLong(value);
+        out.putBoolean(snapshot.isRunning());
+        out.putBoolean(snapshot.isNewPlayer());
+        putItems(snapshot.getInventory(), out);
+        putItems(snapshot.getBank(), out);
+        putItems(snapshot.getEquipment(), out);
+        putNames(snapshot.getFriends(), out);
+        putNames(snapshot.getIgnores(), out);
+        out.putSignedVarLong(snapshot.getRunEnergy());
+        out.putString(snapshot.getSpellbook().name());
+        out.putBoolean(snapshot.isBanned());
+        out.putBoolean(snapshot.isAutoRetaliate());
+        out.putString(snapshot.getFightType().name());
+        out.putSignedVarLong(snapshot.getSkullTimer());
+        out.putBoolean(snapshot.isAcceptAid());
+        out.putSignedVarLong(snapshot.getPoisonDamage());
+        out.putSignedVarLong(snapshot.getTeleblockTimer());
+        out.putSignedVarLong(snapshot.getSpecialAmount());
+        int[] levels = snapshot.getLevels();
+        int[] realLevels = snapshot.getRealLevels();
+        double[] experience = snapshot.getExperience();
+        out.putVarInt(levels.length);
+        for (int i = 0; i < levels.length; i++) {
+            out.putSignedVarLong(levels[i]);
+            out.putSignedVarLong(realLevels[i]);
+            out.putDouble(experience[i]);
+        }
+        return out.flip();
+    }
+
+    /**
+     * Decodes every field within the binary character file held by
+     * {@code buf} straight into {@code player}.
+     *
+     * @param buf
+     *            the buffer containing the character file.
+     * @param player
+     *            the player to decode the character file into.
+     * @throws IllegalStateException
+     *             if the buffer doesn't hold a binary character file, or if
+     *             it was written with a different version of this format.
+     */
+    public static void decode(ByteBuffer buf, Player player) {
+        if (!isBinary(buf))
+            throw new IllegalStateException("Not a binary character file!");
+        buf.getInt();
+        int version = buf.get() & 0xff;
+        if (version != VERSION)
+            throw new IllegalStateException("Unsupported character file version: " + version);
+        player.setUsername(getString(buf));
+        player.setPassword(getString(buf));
+        player.setPosition(new Position(getSignedVarInt(buf), getSignedVarInt(buf), getSignedVarInt(buf)));
+        player.setRights(Rights.valueOf(getString(buf)));
+        int[] appearance = new int[getVarInt(buf)];
+        for (int i = 0; i < appearance.length; i++)
+            appearance[i] = getSignedVarInt(buf);
+        player.getAppearance().setValues(appearance);
+        player.getMovementQueue().setRunning(getBoolean(buf));
+        player.setNewPlayer(getBoolean(buf));
+        player.getInventory().setItems(getItems(buf));
+        player.getBank().setItems(getItems(buf));
+        player.getEquipment().setItems(getItems(buf));
+        int friends = getVarInt(buf);
+        for (int i = 0; i < friends; i++)
+            player.getFriends().add(getVarLong(buf));
+        int ignores = getVarInt(buf);
+        for (int i = 0; i < ignores; i++)
+            player.getIgnores().add(getVarLong(buf));
+        player.getRunEnergy().set(getSignedVarInt(buf));
+        player.setSpellbook(Spellbook.valueOf(getString(buf)));
+        player.setBanned(getBoolean(buf));
+        player.setAutoRetaliate(getBoolean(buf));
+        player.setFightType(FightType.valueOf(getString(buf)));
+        player.getSkullTimer().set(getSignedVarInt(buf));
+        player.setAcceptAid(getBoolean(buf));
+        player.getPoisonDamage().set(getSignedVarInt(buf));
+        player.getTeleblockTimer().set(getSignedVarInt(buf));
+        player.getSpecialPercentage().set(getSignedVarInt(buf));
+        Skill[] skills = player.getSkills();
+        int amount = getVarInt(buf);
+        for (int i = 0; i < amount; i++) {
+            Skill skill = new Skill();
+            skill.setLevel(getSignedVarInt(buf), false);
+            skill.setRealLevel(getSignedVarInt(buf));
+            skill.setExperience(buf.getDouble());
+            if (i < skills.length)
+                skills[i] = skill;
+        }
+    }
+
+    /**
+     * Writes the items packed by a {@link PlayerSnapshot}, every slot as its
+     * identifier plus one followed by its amount, or just {@code 0} if the
+     * slot is empty.
+     *
+     * @param packed
+     *            the packed items to write.
+     * @param out
+     *            the writer to write the items into.
+     */
+    private static void putItems(int[] packed, BinaryWriter out) {
+        out.putVarInt(packed.length / 2);
+        for (int i = 0; i < packed.length; i += 2) {
+            if (packed[i] == -1) {
+                out.putVarInt(0);
+                continue;
+            }
+            out.putVarLong(packed[i] + 1L);
+            out.putVarInt(packed[i + 1]);
+        }
+    }
+
+    /**
+     * Writes the username hashes of a list of players.
+     *
+     * @param names
+     *            the username hashes to write.
+     * @param out
+     *            the writer to write the username hashes into.
+     */
+    private static void putNames(long[] names, BinaryWriter out) {
+        out.putVarInt(names.length);
+        for (long name : names)
+            out.putVarLong(name);
+    }
+
+    /**
+     * Reads items written by {@link #putItems(int[], BinaryWriter)} from
+     * {@code buf}.
+     *
+     * @param buf
+     *            the buffer to read from.
+     * @return the items read, with {@code null} for every empty slot.
+     */
+    private static Item[] getItems(ByteBuffer buf) {
+        Item[] items = new Item[getVarInt(buf)];
+        for (int i = 0; i < items.length; i++) {
+            long id = getVarLong(buf);
+            if (id != 0)
+                items[i] = new Item((int) (id - 1), getVarInt(buf));
+        }
+        return items;
+    }
+
+    /**
+     * Reads a single byte boolean from {@code buf}.
+     *
+     * @param buf
+     *            the buffer to read from.
+     * @return the boolean read.
+     */
+    private static boolean getBoolean(ByteBuffer buf) {
+        return buf.get() == 1;
+    }
+
+    /**
+     * Reads a variable length integer from {@code buf}.
+     *
+     * @param buf
+     *            the buffer to read from.
+     * @return the integer read.
+     */
+    private static int getVarInt(ByteBuffer buf) {
+        return (int) getVarLong(buf);
+    }
+
+    /**
+     * Reads a variable length integer encoded with zig-zag encoding from
+     * {@code buf}.
+     *
+     * @param buf
+     *            the buffer to read from.
+     * @return the integer read.
+     */
+    private static int getSignedVarInt(ByteBuffer buf) {
+        return (int) getSignedVarLong(buf);
+    }
+
+    /**
+     * Reads a variable length long from {@code buf}.
+     *
+     * @param buf
+     *            the buffer to read from.
+     * @return the long read.
+     */
+    private static long getVarLong(ByteBuffer buf) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = buf.get();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IllegalStateException("Malformed variable length integer!");
+    }
+
+    /**
+     * Reads a variable length long encoded with zig-zag encoding from
+     * {@code buf}, which is used for values that could be negative.
+     *
+     * @param buf
+     *            the buffer to read from.
+     * @return the long read.
+     */
+    private static long getSignedVarLong(ByteBuffer buf) {
+        long value = getVarLong(buf);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a length prefixed {@code UTF-8} string from {@code buf}.
+     *
+     * @param buf
+     *            the buffer to read from.
+     * @return the string read.
+     */
+    private static String getString(ByteBuffer buf) {
+        byte[] bytes = new byte[getVarInt(buf)];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A growable buffer that binary character files are encoded into.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    private static final class BinaryWriter {
+
+        /**
+         * The buffer that is currently being written to.
+         */
+        private ByteBuffer buf;
+
+        /**
+         * Creates a new {@link BinaryWriter}.
+         *
+         * @param capacity
+         *            the initial capacity of this writer.
+         */
+        public BinaryWriter(int capacity) {
+            Preconditions.checkArgument(capacity > 0);
+            this.buf = ByteBuffer.allocate(capacity);
+        }
+
+        /**
+         * Ensures there's room for at least {@code amount} more bytes,
+         * growing the backing buffer if needed.
+         *
+         * @param amount
+         *            the amount of bytes about to be written.
+         */
+        private void ensure(int amount) {
+            if (buf.remaining() >= amount)
+                return;
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + amount));
+            buf.flip();
+            grown.put(buf);
+            buf = grown;
+        }
+
+        /**
+         * Writes a single byte.
+         *
+         * @param value
+         *            the byte to write.
+         */
+        public void put(int value) {
+            ensure(1);
+            buf.put((byte) value);
+        }
+
+        /**
+         * Writes a single byte boolean.
+         *
+         * @param value
+         *            the boolean to write.
+         */
+        public void putBoolean(boolean value) {
+            put(value ? 1 : 0);
+        }
+
+        /**
+         * Writes a fixed length integer.
+         *
+         * @param value
+         *            the integer to write.
+         */
+        public void putInt(int value) {
+            ensure(4);
+            buf.putInt(value);
+        }
+
+        /**
+         * Writes a fixed length double.
+         *
+         * @param value
+         *            the double to write.
+         */
+        public void putDouble(double value) {
+            ensure(8);
+            buf.putDouble(value);
+        }
+
+        /**
+         * Writes a variable length integer, which must not be negative.
+         *
+         * @param value
+         *            the integer to write.
+         */
+        public void putVarInt(int value) {
+            Preconditions.checkArgument(value >= 0);
+            putVarLong(value);
+        }
+
+        /**
+         * Writes a variable length long, taking up a single byte for every
+         * {@code 7} bits of the value.
+         *
+         * @param value
+         *            the long to write.
+         */
+        public void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7fL) != 0) {
+                buf.put((byte) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            buf.put((byte) value);
+        }
+
+        /**
+         * Writes a variable length long with zig-zag encoding, so that small
+         * negative values take up as little space as small positive values.
+         *
+         * @param value
+         *            the long to write.
+         */
+        public void putSignedVarLong(long value) {
+            putVarLong((value << 1) ^ (value >> 63));
+        }
+
+        /**
+         * Writes a length prefixed {@code UTF-8} string.
+         *
+         * @param value
+         *            the string to write.
+         */
+        public void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarInt(bytes.length);
+            ensure(bytes.length);
+            buf.put(bytes);
+        }
+
+        /**
+         * Flips the backing buffer so that everything written can be read.
+         *
+         * @return the flipped buffer.
+         */
+        public ByteBuffer flip() {
+            buf.flip();
+            return buf;
+        }
+    }
+}
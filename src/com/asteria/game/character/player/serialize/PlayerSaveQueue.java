@@ -0,0 +1,362 @@
+package com.asteria.game.character.player.serialize;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.asteria.game.GameConstants;
+import com.asteria.game.character.player.IOState;
+import com.asteria.game.character.player.Player;
+import com.asteria.utility.LoggerUtils;
+import com.google.common.base.Preconditions;
+
+/**
+ * The write-behind queue that saves character files on a dedicated thread.
+ * Every player has at most one pending save at a time, requesting a save for a
+ * player that already has a pending save simply replaces what will be written
+ * rather than writing the character file twice. Pending saves are written in
+ * batches of up to {@link GameConstants#SAVE_BATCH_SIZE} character files, in
+ * the order they were requested.
+ * <p>
+ * <p>
+ * Since there's only a single thread writing character files, saves of the
+ * same player can never race on the same file.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class PlayerSaveQueue {
+
+    /**
+     * The logger that will print important information.
+     */
+    private final Logger logger = LoggerUtils.getLogger(PlayerSaveQueue.class);
+
+    /**
+     * The map of username hashes to the latest save requested for them.
+     */
+    private final Map<Long, SaveRequest> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The queue of username hashes that have a save waiting to be written.
+     */
+    private final BlockingQueue<Long> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * The map of username hashes to the snapshot the last character file
+     * written for them was serialized from. The entry of a player is removed
+     * once the save requested when they logged out is written. This is only
+     * ever accessed by the saving thread.
+     */
+    private final Map<Long, PlayerSnapshot> saved = new HashMap<>();
+
+    /**
+     * The amount of saves that have been requested.
+     */
+    private final LongAdder requested = new LongAdder();
+
+    /**
+     * The amount of saves that were coalesced into an already pending save.
+     */
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * The amount of character files that have been written.
+     */
+    private final LongAdder written = new LongAdder();
+
+    /**
+     * The amount of saves that weren't written because the state of the
+     * player hadn't changed since the last save.
+     */
+    private final LongAdder unchanged = new LongAdder();
+
+    /**
+     * The amount of character files that failed to be written.
+     */
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * The amount of batches that have been written.
+     */
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * The total time in nanoseconds between saves being requested and their
+     * character files being written.
+     */
+    private final LongAdder latency = new LongAdder();
+
+    /**
+     * The longest time in nanoseconds between a save being requested and its
+     * character file being written.
+     */
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * The largest amount of saves that have been pending at once.
+     */
+    private final AtomicLong peakBacklog = new AtomicLong();
+
+    /**
+     * The thread that writes the character files.
+     */
+    private final Thread thread = new Thread(this::run, "PlayerSaveThread");
+
+    /**
+     * Starts the thread that writes character files and registers a shutdown
+     * hook that waits for every pending save to be written.
+     */
+    public void init() {
+        Preconditions.checkState(!thread.isAlive(), "This save queue has already been started!");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (!awaitAll(GameConstants.SAVE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                logger.warning("Shutting down with " + getBacklog() + " character files unsaved!");
+        }, "PlayerSaveShutdownThread"));
+    }
+
+    @Override
+    public String toString() {
+        return "SAVES[backlog= " + getBacklog() + ", peak backlog= " + peakBacklog.get() + ", requested= " + requested.sum()
+            + ", coalesced= " + coalesced.sum() + ", written= " + written.sum() + ", unchanged= " + unchanged.sum() + ", failed= " + failed.sum() + ", batches= " + batches
+            .sum() + ", avg= " + String.format("%.2fms", getAverageMillis()) + ", max= " + String.format("%.2fms", maxLatency.get() / 1e6)
+            + "]";
+    }
+
+    /**
+     * Requests that the character file of {@code player} is saved. If a save
+     * is already pending for this player, it's replaced by this save instead.
+     * A snapshot of the player is taken immediately, so this must be invoked
+     * on the game thread.
+     *
+     * @param player
+     *            the player to save.
+     * @return the future that completes once the character file is written.
+     */
+    public CompletableFuture<Void> submit(Player player) {
+        long hash = player.getUsernameHash();
+        PlayerSnapshot snapshot = player.snapshot();
+        boolean logout = player.getSession().getState() == IOState.LOGGING_OUT;
+        requested.increment();
+        SaveRequest request = pending.compute(hash, (k, v) -> {
+            if (v == null || v.started)
+                return new SaveRequest(snapshot, logout);
+            v.snapshot = snapshot;
+            v.logout = logout;
+            coalesced.increment();
+            return v;
+        });
+        if (request.queued.compareAndSet(false, true)) {
+            queue.add(hash);
+            peakBacklog.accumulateAndGet(pending.size(), Math::max);
+        }
+        return request.future;
+    }
+
+    /**
+     * Waits for the latest save of the player with {@code usernameHash} to be
+     * written, if there is one pending.
+     *
+     * @param usernameHash
+     *            the username hash of the player.
+     * @param timeout
+     *            the maximum time to wait.
+     * @param unit
+     *            the unit of the timeout.
+     * @return {@code true} if there is no longer a save pending for the
+     *         player, {@code false} if the timeout elapsed first.
+     */
+    public boolean await(long usernameHash, long timeout, TimeUnit unit) {
+        SaveRequest request = pending.get(usernameHash);
+        if (request == null)
+            return true;
+        try {
+            request.future.get(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (Exception e) {
+            // Failed saves are logged by the saving thread.
+        }
+        return true;
+    }
+
+    /**
+     * Waits for every save that is currently pending to be written.
+     *
+     * @param timeout
+     *            the maximum time to wait.
+     * @param unit
+     *            the unit of the timeout.
+     * @return {@code true} if every save was written, {@code false} if the
+     *         timeout elapsed first.
+     */
+    public boolean awaitAll(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Long hash : pending.keySet()) {
+            if (!await(hash, deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * The function executed by the saving thread, which continuously writes
+     * batches of pending saves.
+     */
+    private void run() {
+        List<Long> batch = new ArrayList<>(GameConstants.SAVE_BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, GameConstants.SAVE_BATCH_SIZE - 1);
+            batch.forEach(this::write);
+            batches.increment();
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes the latest save requested for the player with
+     * {@code usernameHash}. Saves requested for this player from this point on
+     * will be written separately, after this save.
+     *
+     * @param usernameHash
+     *            the username hash of the player.
+     */
+    private void write(long usernameHash) {
+        SaveRequest request = pending.computeIfPresent(usernameHash, (k, v) -> {
+            v.started = true;
+            return v;
+        });
+        if (request == null)
+            return;
+        try {
+            PlayerSnapshot snapshot = request.snapshot;
+            if (PlayerSerialization.serialize(snapshot, saved.get(usernameHash))) {
+                saved.put(usernameHash, snapshot);
+                written.increment();
+            } else {
+                unchanged.increment();
+            }
+        } catch (Exception e) {
+            failed.increment();
+            logger.log(Level.SEVERE, "Unable to save character file!", e);
+        } finally {
+            long elapsed = System.nanoTime() - request.time;
+            latency.add(elapsed);
+            maxLatency.accumulateAndGet(elapsed, Math::max);
+            if (request.logout)
+                saved.remove(usernameHash);
+            pending.remove(usernameHash, request);
+            request.future.complete(null);
+        }
+    }
+
+    /**
+     * Resets all of the counters back to {@code 0}.
+     */
+    public void reset() {
+        requested.reset();
+        coalesced.reset();
+        written.reset();
+        unchanged.reset();
+        failed.reset();
+        batches.reset();
+        latency.reset();
+        maxLatency.set(0);
+        peakBacklog.set(0);
+    }
+
+    /**
+     * Gets the amount of saves currently waiting to be written.
+     *
+     * @return the amount of pending saves.
+     */
+    public int getBacklog() {
+        return pending.size();
+    }
+
+    /**
+     * Gets the average time in milliseconds between a save being requested and
+     * its character file being written.
+     *
+     * @return the average time in milliseconds.
+     */
+    public double getAverageMillis() {
+        long count = written.sum() + unchanged.sum() + failed.sum();
+        return count == 0 ? 0 : latency.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * A single pending save of a player, which can have any amount of saves
+     * coalesced into it before it's written.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    private static final class SaveRequest {
+
+        /**
+         * The future that completes once this save is written.
+         */
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        /**
+         * The flag that determines if this save was added to the queue.
+         */
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        /**
+         * The time in nanoseconds this save was first requested.
+         */
+        private final long time = System.nanoTime();
+
+        /**
+         * The snapshot of the latest state of the player.
+         */
+        private volatile PlayerSnapshot snapshot;
+
+        /**
+         * The flag that determines if the latest save was requested when the
+         * player logged out.
+         */
+        private volatile boolean logout;
+
+        /**
+         * The flag that determines if this save has started being written,
+         * after which nothing else can be coalesced into it.
+         */
+        private volatile boolean started;
+
+        /**
+         * Creates a new {@link SaveRequest}.
+         *
+         * @param snapshot
+         *            the snapshot of the state of the player.
+         * @param logout
+         *            if the save was requested when the player logged out.
+         */
+        public SaveRequest(PlayerSnapshot snapshot, boolean logout) {
+            this.snapshot = snapshot;
+            this.logout = logout;
+        }
+    }
+}
@@ -1,34 +1,34 @@
 package com.asteria.game.character.player.serialize;
 
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Consumer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import com.asteria.game.GameConstants;
-import com.asteria.game.character.MovementQueue;
 import com.asteria.game.character.combat.weapon.FightType;
-import com.asteria.game.character.player.Appearance;
 import com.asteria.game.character.player.Player;
 import com.asteria.game.character.player.Rights;
 import com.asteria.game.character.player.content.Spellbook;
 import com.asteria.game.character.player.skill.Skill;
 import com.asteria.game.character.player.skill.Skills;
 import com.asteria.game.item.Item;
-import com.asteria.game.item.container.Bank;
-import com.asteria.game.item.container.Equipment;
-import com.asteria.game.item.container.Inventory;
 import com.asteria.game.location.Position;
 import com.asteria.net.login.LoginResponse;
-import com.asteria.utility.MutableNumber;
+import com.asteria.utility.TextUtils;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
@@ -39,6 +39,12 @@ import com.google.gson.JsonParser;
  * <p>
  * Serialization of character files can and should be done on another thread
  * whenever possible to avoid doing disk I/O on the main game thread.
+ * <p>
+ * <p>
+ * Character files are written in the compact {@link PlayerBinaryFormat} when
+ * {@link GameConstants#BINARY_SAVES} is enabled, and in pretty printed
+ * {@code JSON} otherwise. The format of a character file is detected when it's
+ * read, so character files in either format can always be loaded.
  *
  * @author lare96 <http://github.com/lare96>
  */
@@ -50,23 +56,48 @@ public final class PlayerSerialization {
      */
     private static PlayerSerializationCache cache = new PlayerSerializationCache(GameConstants.CLEAN_CACHE);
 
+    /**
+     * The write-behind queue that will save character files on a dedicated
+     * thread.
+     */
+    private static PlayerSaveQueue saveQueue = new PlayerSaveQueue();
+
+    /**
+     * The directory that character files are held in when every character
+     * file is saved to its own file.
+     */
+    private static final Path DIRECTORY = Paths.get("./data/players/");
+
+    /**
+     * The directory that the segment files are held in when character files
+     * are appended to a segment log.
+     */
+    private static final Path SEGMENT_DIRECTORY = DIRECTORY.resolve("segments");
+
+    /**
+     * The storage engine that character files are saved to and loaded from.
+     */
+    private static PlayerStore store = GameConstants.SEGMENT_STORE ? new SegmentPlayerStore(SEGMENT_DIRECTORY) : new FilePlayerStore(
+        DIRECTORY);
+
+    /**
+     * The {@code Gson} instance that converts the values of tokens into
+     * {@code JSON} trees.
+     */
+    private static final Gson GSON = new GsonBuilder().addSerializationExclusionStrategy(new PlayerSerializationFilter()).create();
+
     /**
      * The linked hash collection of tokens that will be serialized and
      * deserialized. A linked hash set is used here to ensure that there is only
      * one of each token, and to preserve order.
      */
-    private final Set<TokenSerializer> tokens = new LinkedHashSet<>();
+    private static final Set<TokenSerializer> TOKENS = createTokens();
 
     /**
      * The player this serializer is dedicated to.
      */
     private final Player player;
 
-    /**
-     * The character file that corresponds to this player.
-     */
-    private final File cf;
-
     /**
      * Creates a new {@link PlayerSerialization}.
      *
@@ -75,8 +106,6 @@ public final class PlayerSerialization {
      */
     public PlayerSerialization(Player player) {
         this.player = player;
-        this.cf = Paths.get("./data/players/" + player.getUsername() + "" + ".json").toFile();
-        createTokens();
     }
 
     /**
@@ -92,6 +121,8 @@ public final class PlayerSerialization {
      * tokens.add(new TokenSerializer(NAME_OF_TOKEN, SERIALIZATION, DESERIALIZATION));
      * </pre>
      * <p>
+     * Tokens are serialized from a {@link PlayerSnapshot} rather than from the
+     * player itself, so the value has to be copied into the snapshot first.
      * For those who are still confused, here is an example. Lets say we want
      * "deathCount" to be saved to and loaded from the character file:
      * <p>
@@ -109,84 +140,88 @@ public final class PlayerSerialization {
      * }
      * </pre>
      * <p>
-     * We would be able to do it like this:
+     * We would copy it into a {@code deathCount} field of the snapshot with a
+     * getter of the same name, and then be able to do it like this:
      * <p>
      * <p>
      * 
      * <pre>
-     * tokens.add(new TokenSerializer(&quot;death-count&quot;, player.getDeathCount(), n -&gt; player.setDeathCount(n.getAsInt())));
+     * tokens.add(new TokenSerializer(&quot;death-count&quot;, s -&gt; s.getDeathCount(), (p, n) -&gt; p.setDeathCount(n.getAsInt())));
      * </pre>
+     * <p>
+     * Tokens only describe the {@code JSON} format, the value also has to be
+     * written and read by the {@link PlayerBinaryFormat}.
+     *
+     * @return the tokens that will be serialized and deserialized.
      */
-    private void createTokens() {
+    private static Set<TokenSerializer> createTokens() {
         Gson b = new GsonBuilder().create();
-        Player p = player;
-        tokens.add(new TokenSerializer("username", p.getUsername(), n -> p.setUsername(n.getAsString())));
-        tokens.add(new TokenSerializer("password", p.getPassword(), n -> p.setPassword(n.getAsString())));
-        tokens.add(new TokenSerializer("position", p.getPosition(), n -> p.setPosition(b.fromJson(n, Position.class))));
-        tokens.add(new TokenSerializer("rights", p.getRights(), n -> p.setRights(Rights.valueOf(n.getAsString()))));
-        Appearance appearance = p.getAppearance();
-        tokens.add(new TokenSerializer("appearance", appearance.getValues(), n -> appearance.setValues(b.fromJson(n, int[].class))));
-        MovementQueue movement = p.getMovementQueue();
-        tokens.add(new TokenSerializer("running", movement.isRunning(), n -> movement.setRunning(n.getAsBoolean())));
-        tokens.add(new TokenSerializer("new-player", p.isNewPlayer(), n -> p.setNewPlayer(n.getAsBoolean())));
-        Inventory inventory = p.getInventory();
-        tokens.add(new TokenSerializer("inventory", inventory.container(), n -> inventory.setItems(b.fromJson(n, Item[].class))));
-        Bank bank = p.getBank();
-        tokens.add(new TokenSerializer("bank", bank.container(), n -> bank.setItems(b.fromJson(n, Item[].class))));
-        Equipment equipment = p.getEquipment();
-        tokens.add(new TokenSerializer("equipment", equipment.container(), n -> equipment.setItems(b.fromJson(n, Item[].class))));
-        Set<Long> f = p.getFriends();
-        tokens.add(new TokenSerializer("friends", f.toArray(), n -> Collections.addAll(f, b.fromJson(n, Long[].class))));
-        Set<Long> i = p.getIgnores();
-        tokens.add(new TokenSerializer("ignores", i.toArray(), n -> Collections.addAll(i, b.fromJson(n, Long[].class))));
-        MutableNumber energy = p.getRunEnergy();
-        tokens.add(new TokenSerializer("run-energy", energy.get(), n -> energy.set(n.getAsInt())));
-        Spellbook book = p.getSpellbook();
-        tokens.add(new TokenSerializer("spellbook", book.name(), n -> p.setSpellbook(Spellbook.valueOf(n.getAsString()))));
-        tokens.add(new TokenSerializer("account-banned", p.isBanned(), n -> p.setBanned(n.getAsBoolean())));
-        tokens.add(new TokenSerializer("auto-retaliate", p.isAutoRetaliate(), n -> p.setAutoRetaliate(n.getAsBoolean())));
-        FightType type = p.getFightType();
-        tokens.add(new TokenSerializer("fight-type", type.name(), n -> p.setFightType(FightType.valueOf(n.getAsString()))));
-        MutableNumber skulled = p.getSkullTimer();
-        tokens.add(new TokenSerializer("skull-timer", skulled.get(), n -> skulled.set(n.getAsInt())));
-        tokens.add(new TokenSerializer("accept-aid", p.isAcceptAid(), n -> p.setAcceptAid(n.getAsBoolean())));
-        tokens.add(new TokenSerializer("poison-damage", p.getPoisonDamage().get(), n -> p.getPoisonDamage().set(n.getAsInt())));
-        MutableNumber teleblocked = p.getTeleblockTimer();
-        tokens.add(new TokenSerializer("teleblock-timer", teleblocked.get(), n -> teleblocked.set(n.getAsInt())));
-        MutableNumber percentage = p.getSpecialPercentage();
-        tokens.add(new TokenSerializer("special-amount", percentage.get(), n -> percentage.set(n.getAsInt())));
-        Skill[] skills = p.getSkills();
-        tokens.add(new TokenSerializer("skills", skills, n -> System.arraycopy(b.fromJson(n, Skill[].class), 0, skills, 0, skills.length)));
+        Set<TokenSerializer> tokens = new LinkedHashSet<>();
+        tokens.add(new TokenSerializer("username", s -> s.getUsername(), (p, n) -> p.setUsername(n.getAsString())));
+        tokens.add(new TokenSerializer("password", s -> s.getPassword(), (p, n) -> p.setPassword(n.getAsString())));
+        tokens.add(new TokenSerializer("position", s -> s.getPosition(), (p, n) -> p.setPosition(b.fromJson(n, Position.class))));
+        tokens.add(new TokenSerializer("rights", s -> s.getRights(), (p, n) -> p.setRights(Rights.valueOf(n.getAsString()))));
+        tokens.add(new TokenSerializer("appearance", s -> s.getAppearance(), (p, n) -> p.getAppearance().setValues(b.fromJson(n,
+            int[].class))));
+        tokens.add(new TokenSerializer("running", s -> s.isRunning(), (p, n) -> p.getMovementQueue().setRunning(n.getAsBoolean())));
+        tokens.add(new TokenSerializer("new-player", s -> s.isNewPlayer(), (p, n) -> p.setNewPlayer(n.getAsBoolean())));
+        tokens.add(new TokenSerializer("inventory", s -> items(s.getInventory()), (p, n) -> p.getInventory().setItems(b.fromJson(n,
+            Item[].class))));
+        tokens.add(new TokenSerializer("bank", s -> items(s.getBank()), (p, n) -> p.getBank().setItems(b.fromJson(n, Item[].class))));
+        tokens.add(new TokenSerializer("equipment", s -> items(s.getEquipment()), (p, n) -> p.getEquipment().setItems(b.fromJson(n,
+            Item[].class))));
+        tokens.add(new TokenSerializer("friends", s -> s.getFriends(), (p, n) -> Collections.addAll(p.getFriends(), b.fromJson(n,
+            Long[].class))));
+        tokens.add(new TokenSerializer("ignores", s -> s.getIgnores(), (p, n) -> Collections.addAll(p.getIgnores(), b.fromJson(n,
+            Long[].class))));
+        tokens.add(new TokenSerializer("run-energy", s -> s.getRunEnergy(), (p, n) -> p.getRunEnergy().set(n.getAsInt())));
+        tokens.add(new TokenSerializer("spellbook", s -> s.getSpellbook().name(), (p, n) -> p.setSpellbook(Spellbook.valueOf(n
+            .getAsString()))));
+        tokens.add(new TokenSerializer("account-banned", s -> s.isBanned(), (p, n) -> p.setBanned(n.getAsBoolean())));
+        tokens.add(new TokenSerializer("auto-retaliate", s -> s.isAutoRetaliate(), (p, n) -> p.setAutoRetaliate(n.getAsBoolean())));
+        tokens.add(new TokenSerializer("fight-type", s -> s.getFightType().name(), (p, n) -> p.setFightType(FightType.valueOf(n
+            .getAsString()))));
+        tokens.add(new TokenSerializer("skull-timer", s -> s.getSkullTimer(), (p, n) -> p.getSkullTimer().set(n.getAsInt())));
+        tokens.add(new TokenSerializer("accept-aid", s -> s.isAcceptAid(), (p, n) -> p.setAcceptAid(n.getAsBoolean())));
+        tokens.add(new TokenSerializer("poison-damage", s -> s.getPoisonDamage(), (p, n) -> p.getPoisonDamage().set(n.getAsInt())));
+        tokens.add(new TokenSerializer("teleblock-timer", s -> s.getTeleblockTimer(), (p, n) -> p.getTeleblockTimer().set(n.getAsInt())));
+        tokens.add(new TokenSerializer("special-amount", s -> s.getSpecialAmount(), (p, n) -> p.getSpecialPercentage().set(n.getAsInt())));
+        tokens.add(new TokenSerializer("skills", s -> skills(s), (p, n) -> System.arraycopy(b.fromJson(n, Skill[].class), 0, p.getSkills(),
+            0, p.getSkills().length)));
+        return tokens;
     }
 
     /**
-     * Serializes the dedicated player into a {@code JSON} file.
+     * Serializes {@code snapshot} into a character file, saved to the
+     * {@link PlayerStore}. Nothing is encoded or written if {@code snapshot}
+     * holds exactly the same state as {@code previous}, which means the state
+     * of the player hasn't changed since it was last written.
+     * <p>
+     * <p>
+     * This should only ever be invoked by the {@link PlayerSaveQueue}, use
+     * {@link Player#save()} to save a player instead.
+     *
+     * @param snapshot
+     *            the snapshot of the player to serialize.
+     * @param previous
+     *            the snapshot the last character file written for the player
+     *            was serialized from, or {@code null} if there is none.
+     * @return {@code true} if the character file was written, {@code false}
+     *         if it was unchanged.
+     * @throws IOException
+     *             if any I/O errors occur while writing the character file.
      */
-    public void serialize() {
-        try {
-            cf.getParentFile().setWritable(true);
-            if (!cf.getParentFile().exists()) {
-                try {
-                    cf.getParentFile().mkdirs();
-                } catch (SecurityException e) {
-                    throw new IllegalStateException("Unable to create " + "directory for character files!");
-                }
-            }
-            try (FileWriter out = new FileWriter(cf)) {
-                Gson gson = new GsonBuilder().setPrettyPrinting().addSerializationExclusionStrategy(new PlayerSerializationFilter())
-                    .create();
-                JsonObject obj = new JsonObject();
-                tokens.stream().forEach(t -> obj.add(t.getName(), gson.toJsonTree(t.getToJson())));
-                out.write(gson.toJson(obj));
-                cache.add(player.getUsernameHash(), obj);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    public static boolean serialize(PlayerSnapshot snapshot, PlayerSnapshot previous) throws IOException {
+        if (previous != null && snapshot.sameState(previous) && store.exists(snapshot.getUsername(), snapshot.getUsernameHash()))
+            return false;
+        ByteBuffer buf = encode(snapshot, GameConstants.BINARY_SAVES);
+        cache.add(snapshot.getUsernameHash(), buf);
+        store.save(snapshot.getUsername(), snapshot.getUsernameHash(), buf);
+        return true;
     }
 
     /**
-     * Deserializes the dedicated player from a {@code JSON} file.
+     * Deserializes the dedicated player from a character file.
      *
      * @param password
      *            the password that will be used to validate if the player has
@@ -196,21 +231,16 @@ public final class PlayerSerialization {
      */
     public LoginResponse deserialize(String password) {
         try {
-            if (!cf.exists()) {
+            if (!saveQueue.await(player.getUsernameHash(), GameConstants.SAVE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                return LoginResponse.COULD_NOT_COMPLETE_LOGIN;
+            Optional<ByteBuffer> cf = cache.get(player.getUsernameHash());
+            if (!cf.isPresent())
+                cf = store.load(player.getUsername(), player.getUsernameHash());
+            if (!cf.isPresent()) {
                 Skills.create(player);
                 return LoginResponse.NORMAL;
             }
-            Optional<JsonObject> cached = cache.get(player.getUsernameHash());
-            if (cached.isPresent()) {
-                tokens.stream().filter(t -> cached.get().has(t.getName())).forEach(
-                    t -> t.getFromJson().accept(cached.get().get(t.getName())));
-            } else {
-                cf.setReadable(true);
-                try (FileReader in = new FileReader(cf)) {
-                    JsonObject reader = (JsonObject) new JsonParser().parse(in);
-                    tokens.stream().filter(t -> reader.has(t.getName())).forEach(t -> t.getFromJson().accept(reader.get(t.getName())));
-                }
-            }
+            read(cf.get(), player);
             if (!password.equals(player.getPassword()))
                 return LoginResponse.INVALID_CREDENTIALS;
             if (player.isBanned())
@@ -222,6 +252,182 @@ public final class PlayerSerialization {
         return LoginResponse.NORMAL;
     }
 
+    /**
+     * Converts every token of {@code snapshot} into a {@code JSON} tree. This
+     * is only used for character files in the {@code JSON} format.
+     *
+     * @param snapshot
+     *            the snapshot to convert.
+     * @return the {@code JSON} tree.
+     */
+    static JsonObject toJson(PlayerSnapshot snapshot) {
+        JsonObject obj = new JsonObject();
+        for (TokenSerializer token : TOKENS) {
+            Object value = token.getToJson().apply(snapshot);
+            obj.add(token.getName(), value instanceof JsonElement ? (JsonElement) value : GSON.toJsonTree(value));
+        }
+        return obj;
+    }
+
+    /**
+     * Converts packed items into a {@code JSON} tree, in the same layout an
+     * array of {@link Item}s would be converted into.
+     *
+     * @param packed
+     *            the packed items.
+     * @return the {@code JSON} tree.
+     * @see PlayerSnapshot
+     */
+    private static JsonArray items(int[] packed) {
+        JsonArray array = new JsonArray();
+        for (int i = 0; i < packed.length; i += 2) {
+            if (packed[i] == -1) {
+                array.add(JsonNull.INSTANCE);
+                continue;
+            }
+            JsonObject item = new JsonObject();
+            item.addProperty("id", packed[i]);
+            item.addProperty("amount", packed[i + 1]);
+            array.add(item);
+        }
+        return array;
+    }
+
+    /**
+     * Converts the skills of {@code snapshot} into a {@code JSON} tree, in the
+     * same layout an array of {@link Skill}s would be converted into.
+     *
+     * @param snapshot
+     *            the snapshot to convert the skills of.
+     * @return the {@code JSON} tree.
+     */
+    private static JsonArray skills(PlayerSnapshot snapshot) {
+        JsonArray array = new JsonArray();
+        int[] levels = snapshot.getLevels();
+        int[] realLevels = snapshot.getRealLevels();
+        double[] experience = snapshot.getExperience();
+        for (int i = 0; i < levels.length; i++) {
+            JsonObject skill = new JsonObject();
+            skill.addProperty("level", levels[i]);
+            skill.addProperty("experience", experience[i]);
+            skill.addProperty("realLevel", realLevels[i]);
+            array.add(skill);
+        }
+        return array;
+    }
+
+    /**
+     * Encodes {@code snapshot} into a character file in either format.
+     *
+     * @param snapshot
+     *            the snapshot to encode.
+     * @param binary
+     *            {@code true} to encode in the binary format, {@code false} to
+     *            encode in the {@code JSON} format.
+     * @return the buffer containing the character file, ready to be read.
+     */
+    static ByteBuffer encode(PlayerSnapshot snapshot, boolean binary) {
+        if (binary)
+            return PlayerBinaryFormat.encode(snapshot);
+        return ByteBuffer.wrap(new GsonBuilder().setPrettyPrinting().create().toJson(toJson(snapshot)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the character file in {@code buf} into {@code player}, detecting
+     * which format it was written in.
+     *
+     * @param buf
+     *            the buffer containing the character file.
+     * @param player
+     *            the player to read the character file into.
+     */
+    static void read(ByteBuffer buf, Player player) {
+        if (PlayerBinaryFormat.isBinary(buf)) {
+            PlayerBinaryFormat.decode(buf, player);
+            return;
+        }
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        JsonObject reader = new JsonParser().parse(new String(bytes, StandardCharsets.UTF_8)).getAsJsonObject();
+        TOKENS.stream().filter(t -> reader.has(t.getName())).forEach(t -> t.getFromJson().accept(player, reader.get(t.getName())));
+    }
+
+    /**
+     * Converts the character file in {@code buf} into the requested format, by
+     * reading it into a player that isn't logged in and encoding a snapshot of
+     * that player.
+     *
+     * @param buf
+     *            the buffer containing the character file.
+     * @param binary
+     *            {@code true} to convert to the binary format, {@code false}
+     *            to convert to the {@code JSON} format.
+     * @return the buffer containing the converted character file, ready to be
+     *         read.
+     */
+    static ByteBuffer convert(ByteBuffer buf, boolean binary) {
+        Player player = new Player(null);
+        read(buf, player);
+        return encode(new PlayerSnapshot(player), binary);
+    }
+
+    /**
+     * Converts every character file in the per-file layout that isn't already
+     * in the requested format.
+     *
+     * @param binary
+     *            {@code true} to convert to the binary format, {@code false}
+     *            to convert to the {@code JSON} format.
+     * @return the amount of character files converted.
+     * @throws IOException
+     *             if any I/O errors occur while converting.
+     * @see FilePlayerStore#convert(boolean)
+     */
+    public static int convert(boolean binary) throws IOException {
+        return new FilePlayerStore(DIRECTORY).convert(binary);
+    }
+
+    /**
+     * Copies every character file from the per-file layout into the segment
+     * log, or from the segment log into the per-file layout. Whichever of the
+     * two is currently in use is copied from or to directly, the other one is
+     * opened only for the duration of the migration.
+     * <p>
+     * <p>
+     * This should never be invoked while the players whose character files
+     * are being migrated are online.
+     *
+     * @param segments
+     *            {@code true} to migrate into the segment log, {@code false} to
+     *            migrate into the per-file layout.
+     * @return the amount of character files migrated.
+     * @throws IOException
+     *             if any I/O errors occur while migrating.
+     */
+    public static int migrate(boolean segments) throws IOException {
+        PlayerStore files = store instanceof FilePlayerStore ? store : new FilePlayerStore(DIRECTORY);
+        PlayerStore log = store instanceof SegmentPlayerStore ? store : new SegmentPlayerStore(SEGMENT_DIRECTORY);
+        if (log != store)
+            ((SegmentPlayerStore) log).open();
+        try {
+            PlayerStore from = segments ? files : log;
+            PlayerStore to = segments ? log : files;
+            int migrated = 0;
+            for (String username : from.usernames()) {
+                long usernameHash = TextUtils.nameToHash(username);
+                Optional<ByteBuffer> cf = from.load(username, usernameHash);
+                if (cf.isPresent()) {
+                    to.save(username, usernameHash, cf.get());
+                    migrated++;
+                }
+            }
+            return migrated;
+        } finally {
+            if (log != store)
+                log.close();
+        }
+    }
+
     /**
      * Gets the cache that will enabled the caching of character files for later
      * use.
@@ -232,6 +438,26 @@ public final class PlayerSerialization {
         return cache;
     }
 
+    /**
+     * Gets the write-behind queue that will save character files on a
+     * dedicated thread.
+     *
+     * @return the queue for saving character files.
+     */
+    public static PlayerSaveQueue getSaveQueue() {
+        return saveQueue;
+    }
+
+    /**
+     * Gets the storage engine that character files are saved to and loaded
+     * from.
+     *
+     * @return the player store.
+     */
+    public static PlayerStore getStore() {
+        return store;
+    }
+
     /**
      * The container that represents a token that can be both serialized and
      * deserialized.
@@ -246,14 +472,15 @@ public final class PlayerSerialization {
         private final String name;
 
         /**
-         * The {@code Object} being serialized by this token.
+         * The function that retrieves the value being serialized by this
+         * token from a snapshot.
          */
-        private final Object toJson;
+        private final Function<PlayerSnapshot, Object> toJson;
 
         /**
          * The deserialization consumer for this token.
          */
-        private final Consumer<JsonElement> fromJson;
+        private final BiConsumer<Player, JsonElement> fromJson;
 
         /**
          * Creates a new {@link TokenSerializer}.
@@ -261,11 +488,12 @@ public final class PlayerSerialization {
          * @param name
          *            the name of this serializable token.
          * @param toJson
-         *            the {@code Object} being serialized by this token.
+         *            the function that retrieves the value being serialized
+         *            by this token from a snapshot.
          * @param fromJson
          *            the deserialization consumer for this token.
          */
-        public TokenSerializer(String name, Object toJson, Consumer<JsonElement> fromJson) {
+        public TokenSerializer(String name, Function<PlayerSnapshot, Object> toJson, BiConsumer<Player, JsonElement> fromJson) {
             this.name = name;
             this.toJson = toJson;
             this.fromJson = fromJson;
@@ -311,11 +539,12 @@ public final class PlayerSerialization {
         }
 
         /**
-         * Gets the {@code Object} being serialized by this token.
+         * Gets the function that retrieves the value being serialized by this
+         * token from a snapshot.
          *
-         * @return the serializable object.
+         * @return the serialization function.
          */
-        public Object getToJson() {
+        public Function<PlayerSnapshot, Object> getToJson() {
             return toJson;
         }
 
@@ -324,7 +553,7 @@ public final class PlayerSerialization {
          *
          * @return the deserialization consumer.
          */
-        public Consumer<JsonElement> getFromJson() {
+        public BiConsumer<Player, JsonElement> getFromJson() {
             return fromJson;
         }
     }
@@ -0,0 +1,223 @@
+package com.asteria.game.character.player.serialize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import com.asteria.game.World;
+import com.asteria.game.character.player.Player;
+import com.asteria.game.item.Item;
+import com.asteria.game.item.container.Bank;
+import com.asteria.task.Task;
+import com.asteria.utility.LoggerUtils;
+import com.google.common.base.Preconditions;
+
+/**
+ * The benchmark that compares the save and load throughput of the binary and
+ * {@code JSON} character file formats, as well as the per-file and segment
+ * log {@link PlayerStore}s, using the current state of a player. Character
+ * files are saved to stores in a temporary directory rather than to the actual
+ * store.
+ * <p>
+ * <p>
+ * Only the snapshots are taken on the game thread, every character file is
+ * saved and loaded on the service thread so that the benchmark never stalls
+ * the game sequence.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class PlayerSerializationBenchmark {
+
+    /**
+     * The logger that will print important information.
+     */
+    private static final Logger logger = LoggerUtils.getLogger(PlayerSerializationBenchmark.class);
+
+    /**
+     * The player whose state will be saved and loaded.
+     */
+    private final Player player;
+
+    /**
+     * The amount of times a character file will be saved and loaded in each
+     * format.
+     */
+    private final int iterations;
+
+    /**
+     * Creates a new {@link PlayerSerializationBenchmark}.
+     *
+     * @param player
+     *            the player whose state will be saved and loaded.
+     * @param iterations
+     *            the amount of times a character file will be saved and
+     *            loaded in each format.
+     */
+    public PlayerSerializationBenchmark(Player player, int iterations) {
+        Preconditions.checkArgument(iterations > 0);
+        this.player = player;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Runs this benchmark for taking snapshots on the game thread, and then
+     * for both formats with the per-file store and for the binary format with
+     * the segment log store on the service thread, each starting with a short
+     * warm up. This must be invoked on the game thread.
+     *
+     * @param callback
+     *            the callback invoked on the game thread with every line of the
+     *            summary once the benchmark has completed or failed.
+     */
+    public void run(Consumer<String> callback) {
+        String snapshots = measureSnapshot();
+        PlayerSnapshot snapshot = player.snapshot();
+        CompletableFuture<String[]> future = new CompletableFuture<>();
+        World.getService().submit(() -> {
+            try {
+                future.complete(measureStores(snapshot));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        World.submit(new Task(1, false) {
+            @Override
+            public void execute() {
+                if (!future.isDone())
+                    return;
+                cancel();
+                callback.accept(snapshots);
+                try {
+                    for (String summary : future.join())
+                        callback.accept(summary);
+                } catch (Exception e) {
+                    callback.accept("Benchmark failed: " + e.getCause());
+                    logger.log(Level.SEVERE, "Save benchmark failed!", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Saves and loads the character file of {@code snapshot} in every format
+     * and store, within a temporary directory that is deleted afterwards.
+     *
+     * @param snapshot
+     *            the snapshot of the player.
+     * @return a summary of the results.
+     * @throws IOException
+     *             if any I/O errors occur while saving or loading.
+     */
+    private String[] measureStores(PlayerSnapshot snapshot) throws IOException {
+        Path directory = Files.createTempDirectory("savebench");
+        try {
+            PlayerStore files = new FilePlayerStore(directory);
+            SegmentPlayerStore log = new SegmentPlayerStore(directory.resolve("segments"));
+            log.open();
+            try {
+                int warmup = Math.max(1, iterations / 10);
+                measure(snapshot, files, true, warmup);
+                measure(snapshot, files, false, warmup);
+                measure(snapshot, log, true, warmup);
+                return new String[] { measure(snapshot, files, true, iterations), measure(snapshot, files, false, iterations),
+                        measure(snapshot, log, true, iterations) };
+            } finally {
+                log.close();
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Takes a snapshot of the player with every slot of their bank filled.
+     * Empty bank slots are temporarily filled directly within the backing
+     * array, so no listeners are notified and the bank is restored before
+     * this method returns.
+     *
+     * @return a summary of the results.
+     */
+    private String measureSnapshot() {
+        Bank bank = player.getBank();
+        Item[] items = bank.container();
+        Item[] original = items.clone();
+        try {
+            for (int i = 0; i < items.length; i++) {
+                if (items[i] == null)
+                    items[i] = new Item(i, Integer.MAX_VALUE - i);
+            }
+            for (int i = 0; i < Math.max(1, iterations / 10); i++)
+                player.snapshot();
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                player.snapshot();
+            long elapsed = System.nanoTime() - start;
+            return "SNAPSHOT[bank= " + items.length + " slots, avg= " + String.format("%.2fus", elapsed / (double) iterations / 1000)
+                + "]";
+        } finally {
+            System.arraycopy(original, 0, items, 0, items.length);
+        }
+    }
+
+    /**
+     * Saves and loads the character file of the player {@code amount} times in
+     * a single format.
+     *
+     * @param snapshot
+     *            the snapshot of the player.
+     * @param store
+     *            the store to save to and load from.
+     * @param binary
+     *            {@code true} to use the binary format, {@code false} to use
+     *            the {@code JSON} format.
+     * @param amount
+     *            the amount of times to save and load.
+     * @return a summary of the results.
+     * @throws IOException
+     *             if any I/O errors occur while saving or loading.
+     */
+    private String measure(PlayerSnapshot snapshot, PlayerStore store, boolean binary, int amount) throws IOException {
+        String username = snapshot.getUsername();
+        long usernameHash = snapshot.getUsernameHash();
+        int size = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < amount; i++) {
+            ByteBuffer buf = PlayerSerialization.encode(snapshot, binary);
+            size = buf.remaining();
+            store.save(username, usernameHash, buf);
+        }
+        long saving = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < amount; i++) {
+            Player loaded = new Player(null);
+            PlayerSerialization.read(store.load(username, usernameHash).get(), loaded);
+            Preconditions.checkState(username.equals(loaded.getUsername()));
+        }
+        long loading = System.nanoTime() - start;
+        return (binary ? "BINARY" : "JSON") + "[store= " + (store instanceof SegmentPlayerStore ? "segments" : "files") + ", size= " + size
+            + " bytes, saves= " + perSecond(amount, saving) + "/s, loads= " + perSecond(amount, loading) + "/s]";
+    }
+
+    /**
+     * Determines how many times per second something was done.
+     *
+     * @param amount
+     *            the amount of times it was done.
+     * @param nanos
+     *            the time in nanoseconds it took.
+     * @return the amount of times per second.
+     */
+    private static long perSecond(int amount, long nanos) {
+        return nanos == 0 ? 0 : amount * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+}
@@ -1,5 +1,6 @@
 package com.asteria.game.character.player.serialize;
 
+import java.nio.ByteBuffer;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -11,7 +12,6 @@ import com.asteria.service.ServiceQueue;
 import com.asteria.utility.LoggerUtils;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.gson.JsonObject;
 
 /**
  * The wrapper for the cache that will store character files on logout for later
@@ -39,7 +39,7 @@ public final class PlayerSerializationCache extends Service {
      * {@link PlayerSerializer}. These character files will be removed from the
      * cache {@code 15} minutes after they've been added to free up memory.
      */
-    private final Cache<Long, JsonObject> cache = CacheBuilder.newBuilder().initialCapacity(100).expireAfterWrite(15, TimeUnit.MINUTES)
+    private final Cache<Long, ByteBuffer> cache = CacheBuilder.newBuilder().initialCapacity(100).expireAfterWrite(15, TimeUnit.MINUTES)
         .concurrencyLevel(2).build();
 
     /**
@@ -90,10 +90,11 @@ public final class PlayerSerializationCache extends Service {
      * @param value
      *            the username hash of the player.
      * @param data
-     *            the data for the character file.
+     *            the buffer containing the character file, which is not
+     *            consumed.
      */
-    public void add(long value, JsonObject data) {
-        cache.put(value, data);
+    public void add(long value, ByteBuffer data) {
+        cache.put(value, data.asReadOnlyBuffer());
     }
 
     /**
@@ -103,10 +104,11 @@ public final class PlayerSerializationCache extends Service {
      * @param value
      *            the username hash of the player.
      * @return the data wrapped in an optional if present, or an empty optional
-     *         if not present.
+     *         if not present. Every call returns its own view of the data,
+     *         ready to be read.
      */
-    public Optional<JsonObject> get(long value) {
-        return Optional.ofNullable(cache.getIfPresent(value));
+    public Optional<ByteBuffer> get(long value) {
+        return Optional.ofNullable(cache.getIfPresent(value)).map(ByteBuffer::duplicate);
     }
 
     /**
@@ -0,0 +1,509 @@
+package com.asteria.game.character.player.serialize;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+import com.asteria.game.character.combat.weapon.FightType;
+import com.asteria.game.character.player.Player;
+import com.asteria.game.character.player.Rights;
+import com.asteria.game.character.player.content.Spellbook;
+import com.asteria.game.character.player.skill.Skill;
+import com.asteria.game.item.Item;
+import com.asteria.game.location.Position;
+
+/**
+ * An immutable copy of the persistable state of a {@link Player}, taken on
+ * the game thread so that it can be serialized on any other thread without
+ * racing with the game thread. Snapshots copy only primitives and immutable
+ * values, item containers are packed into arrays of identifiers and amounts
+ * and skills into arrays of levels and experience.
+ * <p>
+ * <p>
+ * The arrays held by a snapshot are never exposed outside of this package and
+ * must never be modified.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class PlayerSnapshot {
+
+    /**
+     * The username of the player.
+     */
+    private final String username;
+
+    /**
+     * The username hash of the player.
+     */
+    private final long usernameHash;
+
+    /**
+     * The password of the player.
+     */
+    private final String password;
+
+    /**
+     * The position of the player.
+     */
+    private final Position position;
+
+    /**
+     * The rights of the player.
+     */
+    private final Rights rights;
+
+    /**
+     * The appearance values of the player.
+     */
+    private final int[] appearance;
+
+    /**
+     * The flag that determines if the player is running.
+     */
+    private final boolean running;
+
+    /**
+     * The flag that determines if the player is new.
+     */
+    private final boolean newPlayer;
+
+    /**
+     * The packed inventory of the player.
+     */
+    private final int[] inventory;
+
+    /**
+     * The packed bank of the player.
+     */
+    private final int[] bank;
+
+    /**
+     * The packed equipment of the player.
+     */
+    private final int[] equipment;
+
+    /**
+     * The username hashes of the friends of the player.
+     */
+    private final long[] friends;
+
+    /**
+     * The username hashes of the players ignored by the player.
+     */
+    private final long[] ignores;
+
+    /**
+     * The run energy of the player.
+     */
+    private final int runEnergy;
+
+    /**
+     * The spellbook of the player.
+     */
+    private final Spellbook spellbook;
+
+    /**
+     * The flag that determines if the player is banned.
+     */
+    private final boolean banned;
+
+    /**
+     * The flag that determines if the player has auto-retaliate toggled.
+     */
+    private final boolean autoRetaliate;
+
+    /**
+     * The fight type of the player.
+     */
+    private final FightType fightType;
+
+    /**
+     * The remaining skull timer of the player.
+     */
+    private final int skullTimer;
+
+    /**
+     * The flag that determines if the player has accept aid toggled.
+     */
+    private final boolean acceptAid;
+
+    /**
+     * The poison damage of the player.
+     */
+    private final int poisonDamage;
+
+    /**
+     * The remaining teleblock timer of the player.
+     */
+    private final int teleblockTimer;
+
+    /**
+     * The special attack percentage of the player.
+     */
+    private final int specialAmount;
+
+    /**
+     * The current levels of the skills of the player.
+     */
+    private final int[] levels;
+
+    /**
+     * The real levels of the skills of the player.
+     */
+    private final int[] realLevels;
+
+    /**
+     * The experience of the skills of the player.
+     */
+    private final double[] experience;
+
+    /**
+     * Creates a new {@link PlayerSnapshot}. This should only ever be invoked
+     * on the game thread, use {@link Player#snapshot()} instead.
+     *
+     * @param player
+     *            the player to take the snapshot of.
+     */
+    public PlayerSnapshot(Player player) {
+        Position pos = player.getPosition();
+        Skill[] skills = player.getSkills();
+        this.username = player.getUsername();
+        this.usernameHash = player.getUsernameHash();
+        this.password = player.getPassword();
+        this.position = new Position(pos.getX(), pos.getY(), pos.getZ());
+        this.rights = player.getRights();
+        this.appearance = player.getAppearance().getValues();
+        this.running = player.getMovementQueue().isRunning();
+        this.newPlayer = player.isNewPlayer();
+        this.inventory = pack(player.getInventory().container());
+        this.bank = pack(player.getBank().container());
+        this.equipment = pack(player.getEquipment().container());
+        this.friends = unbox(player.getFriends());
+        this.ignores = unbox(player.getIgnores());
+        this.runEnergy = player.getRunEnergy().get();
+        this.spellbook = player.getSpellbook();
+        this.banned = player.isBanned();
+        this.autoRetaliate = player.isAutoRetaliate();
+        this.fightType = player.getFightType();
+        this.skullTimer = player.getSkullTimer().get();
+        this.acceptAid = player.isAcceptAid();
+        this.poisonDamage = player.getPoisonDamage().get();
+        this.teleblockTimer = player.getTeleblockTimer().get();
+        this.specialAmount = player.getSpecialPercentage().get();
+        this.levels = new int[skills.length];
+        this.realLevels = new int[skills.length];
+        this.experience = new double[skills.length];
+        for (int i = 0; i < skills.length; i++) {
+            levels[i] = skills[i].getLevel();
+            realLevels[i] = skills[i].getRealLevel();
+            experience[i] = skills[i].getExperience();
+        }
+    }
+
+    /**
+     * Determines if this snapshot holds exactly the same state as
+     * {@code other}, in which case they would both serialize into the same
+     * character file.
+     *
+     * @param other
+     *            the snapshot to compare with.
+     * @return {@code true} if the state is the same, {@code false} otherwise.
+     */
+    boolean sameState(PlayerSnapshot other) {
+        if (usernameHash != other.usernameHash || running != other.running || newPlayer != other.newPlayer)
+            return false;
+        if (runEnergy != other.runEnergy || banned != other.banned || autoRetaliate != other.autoRetaliate)
+            return false;
+        if (skullTimer != other.skullTimer || acceptAid != other.acceptAid || poisonDamage != other.poisonDamage)
+            return false;
+        if (teleblockTimer != other.teleblockTimer || specialAmount != other.specialAmount)
+            return false;
+        if (rights != other.rights || spellbook != other.spellbook || fightType != other.fightType)
+            return false;
+        if (!Objects.equals(username, other.username) || !Objects.equals(password, other.password))
+            return false;
+        if (!position.equals(other.position) || !Arrays.equals(appearance, other.appearance))
+            return false;
+        if (!Arrays.equals(inventory, other.inventory) || !Arrays.equals(bank, other.bank) || !Arrays.equals(equipment,
+            other.equipment))
+            return false;
+        if (!Arrays.equals(friends, other.friends) || !Arrays.equals(ignores, other.ignores))
+            return false;
+        return Arrays.equals(levels, other.levels) && Arrays.equals(realLevels, other.realLevels) && Arrays.equals(
+            experience, other.experience);
+    }
+
+    @Override
+    public String toString() {
+        return "SNAPSHOT[username= " + username + ", position= " + position + "]";
+    }
+
+    /**
+     * Packs the items in {@code items} into a single array, where every item
+     * takes up two elements: its identifier and its amount. Empty slots are
+     * given an identifier of {@code -1}.
+     *
+     * @param items
+     *            the items to pack.
+     * @return the packed items.
+     */
+    private static int[] pack(Item[] items) {
+        int[] packed = new int[items.length << 1];
+        for (int i = 0; i < items.length; i++) {
+            Item item = items[i];
+            packed[i << 1] = item == null ? -1 : item.getId();
+            packed[(i << 1) + 1] = item == null ? 0 : item.getAmount();
+        }
+        return packed;
+    }
+
+    /**
+     * Copies the elements of {@code set} into a primitive array.
+     *
+     * @param set
+     *            the set to copy.
+     * @return the copied elements.
+     */
+    private static long[] unbox(Set<Long> set) {
+        long[] array = new long[set.size()];
+        int index = 0;
+        for (long value : set)
+            array[index++] = value;
+        return array;
+    }
+
+    /**
+     * Gets the username of the player.
+     *
+     * @return the username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the username hash of the player.
+     *
+     * @return the username hash.
+     */
+    public long getUsernameHash() {
+        return usernameHash;
+    }
+
+    /**
+     * Gets the password of the player.
+     *
+     * @return the password.
+     */
+    String getPassword() {
+        return password;
+    }
+
+    /**
+     * Gets the position of the player.
+     *
+     * @return the position.
+     */
+    Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the rights of the player.
+     *
+     * @return the rights.
+     */
+    Rights getRights() {
+        return rights;
+    }
+
+    /**
+     * Gets the appearance values of the player.
+     *
+     * @return the appearance values.
+     */
+    int[] getAppearance() {
+        return appearance;
+    }
+
+    /**
+     * Determines if the player is running.
+     *
+     * @return {@code true} if the player is running, {@code false} otherwise.
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Determines if the player is new.
+     *
+     * @return {@code true} if the player is new, {@code false} otherwise.
+     */
+    boolean isNewPlayer() {
+        return newPlayer;
+    }
+
+    /**
+     * Gets the packed inventory of the player.
+     *
+     * @return the packed inventory.
+     */
+    int[] getInventory() {
+        return inventory;
+    }
+
+    /**
+     * Gets the packed bank of the player.
+     *
+     * @return the packed bank.
+     */
+    int[] getBank() {
+        return bank;
+    }
+
+    /**
+     * Gets the packed equipment of the player.
+     *
+     * @return the packed equipment.
+     */
+    int[] getEquipment() {
+        return equipment;
+    }
+
+    /**
+     * Gets the username hashes of the friends of the player.
+     *
+     * @return the friends.
+     */
+    long[] getFriends() {
+        return friends;
+    }
+
+    /**
+     * Gets the username hashes of the players ignored by the player.
+     *
+     * @return the ignores.
+     */
+    long[] getIgnores() {
+        return ignores;
+    }
+
+    /**
+     * Gets the run energy of the player.
+     *
+     * @return the run energy.
+     */
+    int getRunEnergy() {
+        return runEnergy;
+    }
+
+    /**
+     * Gets the spellbook of the player.
+     *
+     * @return the spellbook.
+     */
+    Spellbook getSpellbook() {
+        return spellbook;
+    }
+
+    /**
+     * Determines if the player is banned.
+     *
+     * @return {@code true} if the player is banned, {@code false} otherwise.
+     */
+    boolean isBanned() {
+        return banned;
+    }
+
+    /**
+     * Determines if the player has auto-retaliate toggled.
+     *
+     * @return {@code true} if auto-retaliate is toggled, {@code false}
+     *         otherwise.
+     */
+    boolean isAutoRetaliate() {
+        return autoRetaliate;
+    }
+
+    /**
+     * Gets the fight type of the player.
+     *
+     * @return the fight type.
+     */
+    FightType getFightType() {
+        return fightType;
+    }
+
+    /**
+     * Gets the remaining skull timer of the player.
+     *
+     * @return the skull timer.
+     */
+    int getSkullTimer() {
+        return skullTimer;
+    }
+
+    /**
+     * Determines if the player has accept aid toggled.
+     *
+     * @return {@code true} if accept aid is toggled, {@code false} otherwise.
+     */
+    boolean isAcceptAid() {
+        return acceptAid;
+    }
+
+    /**
+     * Gets the poison damage of the player.
+     *
+     * @return the poison damage.
+     */
+    int getPoisonDamage() {
+        return poisonDamage;
+    }
+
+    /**
+     * Gets the remaining teleblock timer of the player.
+     *
+     * @return the teleblock timer.
+     */
+    int getTeleblockTimer() {
+        return teleblockTimer;
+    }
+
+    /**
+     * Gets the special attack percentage of the player.
+     *
+     * @return the special attack percentage.
+     */
+    int getSpecialAmount() {
+        return specialAmount;
+    }
+
+    /**
+     * Gets the current levels of the skills of the player.
+     *
+     * @return the current levels.
+     */
+    int[] getLevels() {
+        return levels;
+    }
+
+    /**
+     * Gets the real levels of the skills of the player.
+     *
+     * @return the real levels.
+     */
+    int[] getRealLevels() {
+        return realLevels;
+    }
+
+    /**
+     * Gets the experience of the skills of the player.
+     *
+     * @return the experience.
+     */
+    double[] getExperience() {
+        return experience;
+    }
+}
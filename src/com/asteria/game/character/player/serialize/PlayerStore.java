@@ -0,0 +1,83 @@
+package com.asteria.game.character.player.serialize;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * The storage engine that encoded character files are saved to and loaded
+ * from. Character files are given to and taken from a store already encoded,
+ * which means stores don't have to care about the format character files are
+ * encoded in.
+ * <p>
+ * <p>
+ * Implementations must be thread safe, character files are saved by the
+ * {@link PlayerSaveQueue} while being loaded by the login workers.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public interface PlayerStore extends Closeable {
+
+    /**
+     * Prepares this store for use, invoked once when the server starts.
+     *
+     * @throws IOException
+     *             if any I/O errors occur while preparing this store.
+     */
+    void init() throws IOException;
+
+    /**
+     * Loads the character file of a player.
+     *
+     * @param username
+     *            the username of the player.
+     * @param usernameHash
+     *            the username hash of the player.
+     * @return the buffer containing the encoded character file, or an empty
+     *         optional if the player has no character file.
+     * @throws IOException
+     *             if any I/O errors occur while loading.
+     */
+    Optional<ByteBuffer> load(String username, long usernameHash) throws IOException;
+
+    /**
+     * Saves the character file of a player, replacing the existing character
+     * file if there is one. The character file must be durable by the time
+     * this method returns.
+     *
+     * @param username
+     *            the username of the player.
+     * @param usernameHash
+     *            the username hash of the player.
+     * @param buf
+     *            the buffer containing the encoded character file.
+     * @throws IOException
+     *             if any I/O errors occur while saving.
+     */
+    void save(String username, long usernameHash, ByteBuffer buf) throws IOException;
+
+    /**
+     * Determines if a player has a character file.
+     *
+     * @param username
+     *            the username of the player.
+     * @param usernameHash
+     *            the username hash of the player.
+     * @return {@code true} if the player has a character file, {@code false}
+     *         otherwise.
+     * @throws IOException
+     *             if any I/O errors occur while checking.
+     */
+    boolean exists(String username, long usernameHash) throws IOException;
+
+    /**
+     * Gets the usernames of every player with a character file.
+     *
+     * @return the usernames of the players.
+     * @throws IOException
+     *             if any I/O errors occur while listing the usernames.
+     */
+    Collection<String> usernames() throws IOException;
+}
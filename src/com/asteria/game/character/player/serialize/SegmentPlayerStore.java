@@ -0,0 +1,672 @@
+package com.asteria.game.character.player.serialize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import com.asteria.game.GameConstants;
+import com.asteria.game.World;
+import com.asteria.service.Service;
+import com.asteria.service.ServiceQueue;
+import com.asteria.utility.LoggerUtils;
+import com.google.common.base.Preconditions;
+
+/**
+ * The {@link PlayerStore} implementation that appends every character file to
+ * a log made up of segment files, rather than saving every character file to
+ * its own file. An index of username hashes to the latest record of every
+ * player is kept in memory, which means loading a character file only takes a
+ * single read and saving one only takes a single append.
+ * <p>
+ * <p>
+ * The index is rebuilt on startup by scanning and verifying every record.
+ * Corrupt records are skipped, and only a partially written record at the end
+ * of the active segment is ever truncated.
+ * Records that are superseded by a newer record of the same player are dead
+ * weight, so segments that consist mostly of dead records are periodically
+ * compacted by copying their live records to the end of the log and deleting
+ * the segment.
+ * <p>
+ * <p>
+ * A record is laid out as follows, where the checksum covers everything in the
+ * record after the length and before the checksum:
+ *
+ * <pre>
+ * int    length of the rest of the record
+ * long   username hash
+ * byte   length of the username
+ * byte[] username in UTF-8
+ * int    length of the character file
+ * byte[] character file
+ * int    checksum
+ * </pre>
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class SegmentPlayerStore implements PlayerStore {
+
+    /**
+     * The value every segment file starts with.
+     */
+    private static final int MAGIC = 0x41535347;
+
+    /**
+     * The version of the segment format written by this store.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the header every segment file starts with.
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * The smallest length a record can have, not counting the length itself.
+     */
+    private static final int MINIMUM_RECORD_LENGTH = Long.BYTES + 1 + Integer.BYTES * 2;
+
+    /**
+     * The size of the window read at a time while searching for the next
+     * intact record after a corrupt one.
+     */
+    private static final int RESYNC_WINDOW = 64 * 1024;
+
+    /**
+     * The extension of segment files.
+     */
+    private static final String EXTENSION = ".log";
+
+    /**
+     * The ratio of live records to the size of a segment under which that
+     * segment will be compacted.
+     */
+    private static final double COMPACTION_RATIO = 0.5;
+
+    /**
+     * The logger that will print important information.
+     */
+    private final Logger logger = LoggerUtils.getLogger(SegmentPlayerStore.class);
+
+    /**
+     * The index of username hashes to the latest record of every player.
+     */
+    private final Map<Long, Record> index = new ConcurrentHashMap<>();
+
+    /**
+     * The segments of the log, ordered by their identifiers.
+     */
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+
+    /**
+     * The lock that guards appending to and compacting the log against
+     * reading from it.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The directory that the segment files are held in.
+     */
+    private final Path directory;
+
+    /**
+     * The segment that records are currently appended to.
+     */
+    private Segment active;
+
+    /**
+     * Creates a new {@link SegmentPlayerStore}.
+     *
+     * @param directory
+     *            the directory that the segment files are held in.
+     */
+    public SegmentPlayerStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String toString() {
+        lock.readLock().lock();
+        try {
+            long size = segments.values().stream().mapToLong(s -> s.size).sum();
+            long live = segments.values().stream().mapToLong(s -> s.live).sum();
+            return "SEGMENT_STORE[players= " + index.size() + ", segments= " + segments.size() + ", size= " + size + ", live= " + live
+                + "]";
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <p>
+     * Opens every segment file and rebuilds the index, then schedules the
+     * periodic compaction of this store.
+     */
+    @Override
+    public void init() throws IOException {
+        open();
+        World.getService().submit(new Service(GameConstants.STORE_COMPACTION_MINUTES, TimeUnit.MINUTES) {
+            @Override
+            public void execute(ServiceQueue context) {
+                try {
+                    compact();
+                } catch (Exception e) {
+                    logger.log(Level.SEVERE, "Unable to compact the player store!", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Opens every segment file and rebuilds the index by scanning every
+     * record. Corrupt records are skipped without modifying their segment,
+     * the only thing ever truncated is a partially written record left behind
+     * at the end of the active segment by a crash.
+     *
+     * @throws IOException
+     *             if any I/O errors occur while opening.
+     */
+    public void open() throws IOException {
+        lock.writeLock().lock();
+        try {
+            Preconditions.checkState(active == null, "This store has already been opened!");
+            Files.createDirectories(directory);
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                stream.forEach(files::add);
+            }
+            files.sort(Comparator.comparingInt(SegmentPlayerStore::segmentId));
+            for (int i = 0; i < files.size(); i++) {
+                Path file = files.get(i);
+                Segment segment = new Segment(segmentId(file), file, FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE));
+                segments.put(segment.id, segment);
+                scan(segment, i == files.size() - 1);
+            }
+            active = segments.isEmpty() ? roll() : segments.lastEntry().getValue();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values())
+                segment.channel.close();
+            segments.clear();
+            index.clear();
+            active = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<ByteBuffer> load(String username, long usernameHash) throws IOException {
+        lock.readLock().lock();
+        try {
+            Record record = index.get(usernameHash);
+            if (record == null)
+                return Optional.empty();
+            ByteBuffer buf = read(record);
+            buf.position(Integer.BYTES + Long.BYTES);
+            int nameLength = buf.get() & 0xff;
+            buf.position(buf.position() + nameLength);
+            int length = buf.getInt();
+            buf.limit(buf.position() + length);
+            return Optional.of(buf.slice());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void save(String username, long usernameHash, ByteBuffer buf) throws IOException {
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        Preconditions.checkArgument(name.length <= 0xff, "Username too long!");
+        ByteBuffer src = buf.duplicate();
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + 1 + name.length + Integer.BYTES + src.remaining()
+            + Integer.BYTES);
+        record.putInt(record.capacity() - Integer.BYTES);
+        record.putLong(usernameHash);
+        record.put((byte) name.length);
+        record.put(name);
+        record.putInt(src.remaining());
+        record.put(src);
+        CRC32 checksum = new CRC32();
+        checksum.update(record.array(), Integer.BYTES, record.position() - Integer.BYTES);
+        record.putInt((int) checksum.getValue());
+        record.flip();
+
+        lock.writeLock().lock();
+        try {
+            append(usernameHash, username, record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean exists(String username, long usernameHash) {
+        return index.containsKey(usernameHash);
+    }
+
+    @Override
+    public Collection<String> usernames() {
+        return index.values().stream().map(r -> r.username).collect(Collectors.toList());
+    }
+
+    /**
+     * Compacts every segment other than the active segment where less than
+     * {@link #COMPACTION_RATIO} of the segment is made up of live records. The
+     * live records are appended to the active segment, after which the
+     * compacted segment is deleted.
+     *
+     * @return the amount of segments compacted.
+     * @throws IOException
+     *             if any I/O errors occur while compacting.
+     */
+    public int compact() throws IOException {
+        List<Segment> candidates;
+        lock.readLock().lock();
+        try {
+            candidates = segments.values().stream().filter(s -> s != active && s.live < s.size * COMPACTION_RATIO).collect(
+                Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (Segment segment : candidates) {
+            lock.writeLock().lock();
+            try {
+                List<Record> live = index.values().stream().filter(r -> r.segment == segment).collect(Collectors.toList());
+                for (Record record : live)
+                    append(record.usernameHash, record.username, read(record));
+                segments.remove(segment.id);
+                segment.channel.close();
+                Files.delete(segment.path);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return candidates.size();
+    }
+
+    /**
+     * Appends {@code record} to the active segment and points the index at
+     * it, rolling over to a new segment first if the active segment is full.
+     * The write lock must be held.
+     *
+     * @param usernameHash
+     *            the username hash of the player.
+     * @param username
+     *            the username of the player.
+     * @param record
+     *            the buffer containing the entire record.
+     * @throws IOException
+     *             if any I/O errors occur while appending.
+     */
+    private void append(long usernameHash, String username, ByteBuffer record) throws IOException {
+        Preconditions.checkState(active != null, "This store is not open!");
+        int length = record.remaining();
+        if (active.size > HEADER_SIZE && active.size + length > GameConstants.STORE_SEGMENT_SIZE)
+            active = roll();
+        long offset = active.size;
+        while (record.hasRemaining())
+            active.channel.write(record, offset + length - record.remaining());
+        active.channel.force(false);
+        active.size += length;
+        index(new Record(usernameHash, username, active, offset, length));
+    }
+
+    /**
+     * Reads an entire record from the segment it's held in.
+     *
+     * @param record
+     *            the record to read.
+     * @return the buffer containing the entire record.
+     * @throws IOException
+     *             if any I/O errors occur while reading, or if the record is
+     *             corrupt.
+     */
+    private ByteBuffer read(Record record) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(record.length);
+        while (buf.hasRemaining()) {
+            if (record.segment.channel.read(buf, record.offset + buf.position()) == -1)
+                throw new EOFException("Record of " + record.username + " is truncated!");
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(buf.array(), Integer.BYTES, record.length - Integer.BYTES * 2);
+        buf.flip();
+        if ((int) checksum.getValue() != buf.getInt(record.length - Integer.BYTES))
+            throw new IOException("Record of " + record.username + " is corrupt!");
+        return buf;
+    }
+
+    /**
+     * Points the index at {@code record}, marking the record it replaces as
+     * dead.
+     *
+     * @param record
+     *            the new latest record of the player.
+     */
+    private void index(Record record) {
+        record.segment.live += record.length;
+        Record old = index.put(record.usernameHash, record);
+        if (old != null)
+            old.segment.live -= old.length;
+    }
+
+    /**
+     * Scans every record in {@code segment}, verifying their checksums and
+     * adding them to the index. A record that is partially written or fails
+     * its checksum is skipped, and scanning resumes at the next intact record
+     * so that no intact record after it is lost. Only when nothing intact
+     * follows the record in the active segment is it considered a torn write,
+     * and the segment is truncated there. The write lock must be held.
+     *
+     * @param segment
+     *            the segment to scan.
+     * @param active
+     *            {@code true} if this is the active segment, {@code false} if
+     *            it's sealed.
+     * @throws IOException
+     *             if any I/O errors occur while scanning.
+     */
+    private void scan(Segment segment, boolean active) throws IOException {
+        long size = segment.channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        segment.channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() > VERSION)
+            throw new IOException("Invalid segment file: " + segment.path);
+        long offset = HEADER_SIZE;
+        long skipped = 0;
+        while (offset < size) {
+            Record record = verify(segment, offset, size);
+            if (record != null) {
+                index(record);
+                offset += record.length;
+                continue;
+            }
+            long next = resync(segment, offset, size);
+            if (next == -1) {
+                if (active) {
+                    logger.warning("Truncating " + (size - offset) + " bytes of a partially written record from " + segment.path);
+                    segment.channel.truncate(offset);
+                    size = offset;
+                } else {
+                    skipped += size - offset;
+                }
+                break;
+            }
+            skipped += next - offset;
+            offset = next;
+        }
+        if (skipped > 0)
+            logger.warning("Skipped " + skipped + " bytes of corrupt records in " + segment.path);
+        segment.size = size;
+    }
+
+    /**
+     * Finds the next intact record after the corrupt record at {@code from}.
+     * The length of the corrupt record is tried first, and if that doesn't
+     * lead to an intact record every following offset is tried instead.
+     *
+     * @param segment
+     *            the segment to search.
+     * @param from
+     *            the offset of the corrupt record.
+     * @param size
+     *            the size of the segment.
+     * @return the offset of the next intact record, or {@code -1} if there
+     *         are no intact records after the corrupt record.
+     * @throws IOException
+     *             if any I/O errors occur while searching.
+     */
+    private long resync(Segment segment, long from, long size) throws IOException {
+        if (from + Integer.BYTES <= size) {
+            ByteBuffer prefix = ByteBuffer.allocate(Integer.BYTES);
+            readFully(segment, prefix, from);
+            long next = from + Integer.BYTES + prefix.getInt(0);
+            if (next > from + Integer.BYTES && next < size && verify(segment, next, size) != null)
+                return next;
+        }
+        ByteBuffer window = ByteBuffer.allocate(RESYNC_WINDOW);
+        for (long base = from + 1; base + Integer.BYTES <= size; base += window.limit() - (Integer.BYTES - 1)) {
+            window.clear().limit((int) Math.min(RESYNC_WINDOW, size - base));
+            readFully(segment, window, base);
+            for (int i = 0; i + Integer.BYTES <= window.limit(); i++) {
+                int length = window.getInt(i);
+                long offset = base + i;
+                if (length >= MINIMUM_RECORD_LENGTH && offset + Integer.BYTES + length <= size && verify(segment, offset,
+                    size) != null)
+                    return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads and verifies the record at {@code offset}, without adding it to
+     * the index.
+     *
+     * @param segment
+     *            the segment holding the record.
+     * @param offset
+     *            the offset of the record.
+     * @param size
+     *            the size of the segment.
+     * @return the record, or {@code null} if there is no intact record at
+     *         this offset.
+     * @throws IOException
+     *             if any I/O errors occur while reading.
+     */
+    private Record verify(Segment segment, long offset, long size) throws IOException {
+        if (offset + Integer.BYTES > size)
+            return null;
+        ByteBuffer prefix = ByteBuffer.allocate(Integer.BYTES);
+        readFully(segment, prefix, offset);
+        int length = prefix.getInt(0);
+        if (length < MINIMUM_RECORD_LENGTH || offset + Integer.BYTES + length > size)
+            return null;
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        readFully(segment, buf, offset + Integer.BYTES);
+        CRC32 checksum = new CRC32();
+        checksum.update(buf.array(), 0, length - Integer.BYTES);
+        if ((int) checksum.getValue() != buf.getInt(length - Integer.BYTES))
+            return null;
+        long usernameHash = buf.getLong(0);
+        int nameLength = buf.get(Long.BYTES) & 0xff;
+        if (MINIMUM_RECORD_LENGTH + nameLength > length || buf.getInt(Long.BYTES + 1 + nameLength) != length - MINIMUM_RECORD_LENGTH
+            - nameLength)
+            return null;
+        String username = new String(buf.array(), Long.BYTES + 1, nameLength, StandardCharsets.UTF_8);
+        return new Record(usernameHash, username, segment, offset, Integer.BYTES + length);
+    }
+
+    /**
+     * Fills {@code buf} with the bytes of {@code segment} starting at
+     * {@code offset}.
+     *
+     * @param segment
+     *            the segment to read from.
+     * @param buf
+     *            the buffer to fill.
+     * @param offset
+     *            the offset to start reading at.
+     * @throws IOException
+     *             if any I/O errors occur while reading, or if the end of the
+     *             segment is reached first.
+     */
+    private static void readFully(Segment segment, ByteBuffer buf, long offset) throws IOException {
+        long start = offset - buf.position();
+        while (buf.hasRemaining()) {
+            if (segment.channel.read(buf, start + buf.position()) == -1)
+                throw new EOFException("Unexpected end of " + segment.path);
+        }
+    }
+
+    /**
+     * Creates a new segment to append records to. The write lock must be
+     * held.
+     *
+     * @return the new segment.
+     * @throws IOException
+     *             if any I/O errors occur while creating the segment.
+     */
+    private Segment roll() throws IOException {
+        int id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Path path = directory.resolve(String.format("segment-%08d%s", id, EXTENSION));
+        Segment segment = new Segment(id, path, FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE));
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        while (header.hasRemaining())
+            segment.channel.write(header, header.position());
+        segment.size = HEADER_SIZE;
+        segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * Determines the identifier of the segment held in {@code file}.
+     *
+     * @param file
+     *            the segment file.
+     * @return the identifier of the segment.
+     */
+    private static int segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(name.indexOf('-') + 1, name.length() - EXTENSION.length()));
+    }
+
+    /**
+     * A single segment file of the log.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    private static final class Segment {
+
+        /**
+         * The identifier of this segment, which determines its order in the
+         * log.
+         */
+        private final int id;
+
+        /**
+         * The path of the file this segment is held in.
+         */
+        private final Path path;
+
+        /**
+         * The channel used to read from and write to this segment.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The size of this segment in bytes.
+         */
+        private long size;
+
+        /**
+         * The amount of bytes within this segment that are taken up by live
+         * records.
+         */
+        private long live;
+
+        /**
+         * Creates a new {@link Segment}.
+         *
+         * @param id
+         *            the identifier of this segment.
+         * @param path
+         *            the path of the file this segment is held in.
+         * @param channel
+         *            the channel used to read from and write to this segment.
+         */
+        public Segment(int id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * The location of the latest record of a single player.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    private static final class Record {
+
+        /**
+         * The username hash of the player.
+         */
+        private final long usernameHash;
+
+        /**
+         * The username of the player.
+         */
+        private final String username;
+
+        /**
+         * The segment this record is held in.
+         */
+        private final Segment segment;
+
+        /**
+         * The offset of this record within its segment.
+         */
+        private final long offset;
+
+        /**
+         * The length of this entire record.
+         */
+        private final int length;
+
+        /**
+         * Creates a new {@link Record}.
+         *
+         * @param usernameHash
+         *            the username hash of the player.
+         * @param username
+         *            the username of the player.
+         * @param segment
+         *            the segment this record is held in.
+         * @param offset
+         *            the offset of this record within its segment.
+         * @param length
+         *            the length of this entire record.
+         */
+        public Record(long usernameHash, String username, Segment segment, long offset, int length) {
+            this.usernameHash = usernameHash;
+            this.username = username;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -215,7 +215,7 @@ public final class Skill {
      * @param realLevel
      *            the new value to set.
      */
-    protected void setRealLevel(int realLevel) {
+    public void setRealLevel(int realLevel) {
         this.realLevel = realLevel;
     }
 }
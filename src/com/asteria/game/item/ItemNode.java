@@ -99,11 +99,7 @@ public class ItemNode extends Node {
     public void dispose() {
         switch (state) {
         case SEEN_BY_EVERYONE:
-            World.getPlayers().forEach(p -> {
-                if (super.getPosition().withinDistance(p.getPosition(), 60)) {
-                    p.getMessages().sendRemoveGroundItem(this);
-                }
-            });
+            World.getPlayers().getRegions().forEach(super.getPosition(), 60, p -> p.getMessages().sendRemoveGroundItem(this));
             break;
         case SEEN_BY_OWNER:
             World.getPlayer(player.getUsernameHash()).ifPresent(p -> p.getMessages().sendRemoveGroundItem(this));
@@ -122,8 +118,8 @@ public class ItemNode extends Node {
     public void onSequence() {
         switch (state) {
         case SEEN_BY_OWNER:
-            World.getPlayers().forEach(p -> {
-                if (super.getPosition().withinDistance(p.getPosition(), 60) && !p.equals(player)) {
+            World.getPlayers().getRegions().forEach(super.getPosition(), 60, p -> {
+                if (!p.equals(player)) {
                     p.getMessages().sendGroundItem(new ItemNode(item, super.getPosition(), null));
                 }
             });
@@ -138,6 +134,18 @@ public class ItemNode extends Node {
         }
     }
 
+    /**
+     * Creates a copy of this node on the same position, with the same state
+     * and a copy of the concealed item.
+     *
+     * @return the copy of this node.
+     */
+    public ItemNode copy() {
+        ItemNode node = new ItemNode(item, super.getPosition(), player);
+        node.setState(state);
+        return node;
+    }
+
     /**
      * The method executed when {@code player} attempts to pickup this item.
      *
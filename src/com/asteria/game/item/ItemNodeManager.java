@@ -1,17 +1,30 @@
 package com.asteria.game.item;
 
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.asteria.game.World;
 import com.asteria.game.character.player.Player;
 import com.asteria.game.location.Position;
+import com.asteria.game.location.RegionIndex;
 import com.asteria.task.Task;
 
 /**
- * The node manager that manages all registered item nodes.
+ * The node manager that manages all registered item nodes. Items are indexed
+ * by the region and the tile they're on, so that finding the items on a tile
+ * or around a player never has to scan every item in the world.
+ * <p>
+ * <p>
+ * Every item is sequenced once every {@link ItemNodeManager#SEQUENCE_TICKS}
+ * ticks. Rather than sweeping over every item to count down their timers, each
+ * item is placed in the bucket of the tick it was registered on and only that
+ * bucket is sequenced when its tick comes around again.
  *
  * @author lare96 <http://github.com/lare96>
  */
@@ -23,31 +36,39 @@ public final class ItemNodeManager extends Task {
     private static final int SEQUENCE_TICKS = 100;
 
     /**
-     * The linked collection of registered items.
+     * The spatial index of registered items, bucketed by region.
      */
-    public static final List<ItemNode> ITEMS = new LinkedList<>();
+    public static final RegionIndex<ItemNode> ITEMS = new RegionIndex<>();
+
+    /**
+     * The map of positions to the registered items on those positions.
+     */
+    private static final Map<Position, List<ItemNode>> TILES = new HashMap<>();
+
+    /**
+     * The expiry buckets, one for every tick in a sequence cycle. Items that
+     * have been unregistered are discarded from their bucket the next time it
+     * is sequenced.
+     */
+    private static final List<List<ItemNode>> BUCKETS = Stream.<List<ItemNode>> generate(ArrayList::new).limit(SEQUENCE_TICKS)
+        .collect(Collectors.toList());
+
+    /**
+     * The index of the expiry bucket for the current tick.
+     */
+    private static int cursor;
 
     /**
      * Creates a new {@link ItemNodeManager}.
      */
     public ItemNodeManager() {
-        super(10, true);
+        super(1, false);
     }
 
     @Override
     public void execute() {
-        Iterator<ItemNode> it = ITEMS.iterator();
-        while (it.hasNext()) {
-            ItemNode item = it.next();
-            if (item.getCounter().incrementAndGet(10) >= ItemNodeManager.SEQUENCE_TICKS) {
-                item.onSequence();
-                item.getCounter().set(0);
-            }
-            if (!item.isRegistered()) {
-                item.dispose();
-                it.remove();
-            }
-        }
+        cursor = (cursor + 1) % SEQUENCE_TICKS;
+        BUCKETS.get(cursor).removeIf(ItemNodeManager::sequence);
     }
 
     @Override
@@ -57,8 +78,30 @@ public final class ItemNodeManager extends Task {
 
     @Override
     public void onThrowable(Throwable t) {
-        ITEMS.stream().forEach(i -> i.dispose());
+        ITEMS.forEach(ItemNode::dispose);
         ITEMS.clear();
+        TILES.clear();
+        BUCKETS.forEach(List::clear);
+    }
+
+    /**
+     * Sequences {@code item} if it's still registered, disposing of it if it
+     * expires as a result.
+     *
+     * @param item
+     *            the item to sequence.
+     * @return {@code true} if the item should be discarded from its bucket,
+     *         {@code false} otherwise.
+     */
+    private static boolean sequence(ItemNode item) {
+        if (item.isRegistered())
+            item.onSequence();
+        if (!item.isRegistered()) {
+            if (remove(item))
+                item.dispose();
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -74,13 +117,10 @@ public final class ItemNodeManager extends Task {
         if (item.isRegistered())
             return false;
         if (stack) {
-            Iterator<ItemNode> it = ITEMS.iterator();
-            while (it.hasNext()) {
-                ItemNode next = it.next();
-                if (next.getPlayer() == null || next.getPosition() == null || next.getItem() == null)
+            for (ItemNode next : getItems(item.getPosition())) {
+                if (next.getPlayer() == null || next.getItem() == null)
                     continue;
-                if (next.getItem().getId() == item.getItem().getId() && next.getPosition().equals(item.getPosition()) && next.getPlayer()
-                    .equals(item.getPlayer())) {
+                if (next.getItem().getId() == item.getItem().getId() && next.getPlayer().equals(item.getPlayer())) {
                     next.getItem().incrementAmountBy(item.getItem().getAmount());
                     if (next.getItem().getAmount() <= 5) {
                         next.dispose();
@@ -89,24 +129,18 @@ public final class ItemNodeManager extends Task {
                     return true;
                 }
             }
-            ITEMS.add(item);
-            item.create();
-            item.setRegistered(true);
+            add(item);
             return true;
         }
         if (item.getItem().getDefinition().isStackable()) {
-            ITEMS.add(item);
-            item.create();
-            item.setRegistered(true);
+            add(item);
             return true;
         }
         int amount = item.getItem().getAmount();
         item.getItem().setAmount(1);
-        for (int i = 0; i < amount; i++) {
-            ITEMS.add(item);
-            item.create();
-            item.setRegistered(true);
-        }
+        add(item);
+        for (int i = 1; i < amount; i++)
+            add(item.copy());
         return true;
     }
 
@@ -133,9 +167,9 @@ public final class ItemNodeManager extends Task {
     public static boolean unregister(ItemNode item) {
         if (!item.isRegistered())
             return false;
-        if (ITEMS.remove(item)) {
+        if (remove(item)) {
             item.dispose();
-            item.setRegistered(true);
+            item.setRegistered(false);
             return true;
         }
         return false;
@@ -152,32 +186,75 @@ public final class ItemNodeManager extends Task {
      *         no item is found.
      */
     public static Optional<ItemNode> getItem(int id, Position position) {
-        return ITEMS.stream().filter(
-            i -> i.getState() != ItemState.HIDDEN && i.isRegistered() && i.getItem().getId() == id && i.getPosition().equals(position))
-            .findFirst();
+        return getItems(position).stream().filter(
+            i -> i.getState() != ItemState.HIDDEN && i.isRegistered() && i.getItem().getId() == id).findFirst();
     }
 
     /**
-     * The method that updates all items in the region for {@code player}.
+     * The method that updates all items in the region for {@code player}. Only
+     * the items within viewing distance are sent, because the client discards
+     * every other ground item when it loads a new region.
      *
      * @param player
      *            the player to update items for.
      */
     public static void updateRegion(Player player) {
-        for (ItemNode item : ITEMS) {
+        ITEMS.forEach(player.getPosition(), 60, item -> {
             if (item.getState() == ItemState.HIDDEN || !item.isRegistered())
-                continue;
+                return;
             player.getMessages().sendRemoveGroundItem(item);
-            if (item.getPosition().withinDistance(player.getPosition(), 60)) {
-                if (item.getPlayer() == null && item.getState() == ItemState.SEEN_BY_EVERYONE) {
-                    player.getMessages().sendGroundItem(item);
-                    continue;
-                }
-                if (item.getPlayer().equals(player) && item.getState() == ItemState.SEEN_BY_OWNER) {
-                    player.getMessages().sendGroundItem(item);
-                    continue;
-                }
+            if (item.getPlayer() == null && item.getState() == ItemState.SEEN_BY_EVERYONE) {
+                player.getMessages().sendGroundItem(item);
+                return;
             }
-        }
+            if (item.getPlayer().equals(player) && item.getState() == ItemState.SEEN_BY_OWNER) {
+                player.getMessages().sendGroundItem(item);
+            }
+        });
+    }
+
+    /**
+     * Retrieves the registered items on {@code position}.
+     *
+     * @param position
+     *            the position to retrieve the items on.
+     * @return the items on the position, or an empty list if there are none.
+     */
+    private static List<ItemNode> getItems(Position position) {
+        return TILES.getOrDefault(position, Collections.emptyList());
+    }
+
+    /**
+     * Indexes {@code item}, places it in the expiry bucket of the current tick
+     * and displays it.
+     *
+     * @param item
+     *            the item to add.
+     */
+    private static void add(ItemNode item) {
+        ITEMS.add(item);
+        TILES.computeIfAbsent(item.getPosition(), p -> new ArrayList<>(1)).add(item);
+        BUCKETS.get(cursor).add(item);
+        item.create();
+        item.setRegistered(true);
+    }
+
+    /**
+     * Removes {@code item} from the index. The item is left in its expiry
+     * bucket until that bucket is next sequenced.
+     *
+     * @param item
+     *            the item to remove.
+     * @return {@code true} if the item was removed, {@code false} if it wasn't
+     *         indexed.
+     */
+    private static boolean remove(ItemNode item) {
+        if (!ITEMS.remove(item))
+            return false;
+        List<ItemNode> items = TILES.get(item.getPosition());
+        items.remove(item);
+        if (items.isEmpty())
+            TILES.remove(item.getPosition());
+        return true;
     }
 }
@@ -77,11 +77,12 @@ public final class ItemNodeStatic extends ItemNode {
 
     @Override
     public void create() {
-        World.getPlayers().forEach(p -> {
-            if (p.getPosition().withinDistance(getPosition(), 60)) {
-                p.getMessages().sendGroundItem(this);
-            }
-        });
+        World.getPlayers().getRegions().forEach(getPosition(), 60, p -> p.getMessages().sendGroundItem(this));
+    }
+
+    @Override
+    public ItemNodeStatic copy() {
+        return new ItemNodeStatic(super.getItem(), getPosition(), policy);
     }
 
     @Override
@@ -161,6 +161,7 @@ public final class Equipment extends ItemContainer {
             player.setSpecialActivated(false);
         }
         refresh();
+        player.invalidateAppearance();
         player.getFlags().set(Flag.APPEARANCE);
         return true;
     }
@@ -199,6 +200,7 @@ public final class Equipment extends ItemContainer {
         }
         refresh();
         player.getInventory().refresh();
+        player.invalidateAppearance();
         player.getFlags().set(Flag.APPEARANCE);
         return true;
     }
@@ -219,6 +221,30 @@ public final class Equipment extends ItemContainer {
         return unequipItem(slot, addItem);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <p>
+     * This also invalidates the encoded appearance of the player.
+     */
+    @Override
+    public void set(int slot, Item item) {
+        super.set(slot, item);
+        player.invalidateAppearance();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <p>
+     * This also invalidates the encoded appearance of the player.
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        player.invalidateAppearance();
+    }
+
     /**
      * This method is not supported by this container implementation.
      *
@@ -0,0 +1,27 @@
+package com.asteria.game.location;
+
+/**
+ * The enumerated type whose elements represent the attributes that an area
+ * registered with the {@link AreaIndex} can give to the positions within it.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public enum AreaAttribute {
+    WILDERNESS,
+    MULTIPLE_COMBAT,
+    SAFE_ZONE;
+
+    /**
+     * The bit that represents this attribute within an attribute mask.
+     */
+    private final int mask = 1 << ordinal();
+
+    /**
+     * Gets the bit that represents this attribute within an attribute mask.
+     *
+     * @return the bit of this attribute.
+     */
+    public final int getMask() {
+        return mask;
+    }
+}
@@ -0,0 +1,260 @@
+package com.asteria.game.location;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.asteria.game.GameConstants;
+import com.asteria.game.Node;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The index that determines which {@link AreaAttribute}s apply to any given
+ * position in the world. Every registered area is compiled into a table of
+ * attribute masks with one entry for every tile, split up into {@code 64x64}
+ * map regions, so that determining if a position is within an area is a
+ * couple of array lookups no matter how many areas are registered or how
+ * complex their shapes are.
+ * <p>
+ * <p>
+ * Map regions that are entirely within the same areas share a single table
+ * of masks, and map regions that aren't within any area have no table at all.
+ * The tables are compiled again whenever an area is registered or
+ * unregistered, and are published atomically so that they can be read from
+ * any thread.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class AreaIndex {
+
+    /**
+     * The amount of tiles along each side of a map region.
+     */
+    private static final int REGION_SIZE = 64;
+
+    /**
+     * The map of names to the registered areas, in registration order.
+     */
+    private static final Map<String, Area> AREAS = new LinkedHashMap<>();
+
+    /**
+     * The compiled tables of attribute masks, indexed by map region and then
+     * by tile within the map region.
+     */
+    private static volatile int[][] masks = new int[4 << 16][];
+
+    /**
+     * The default constructor.
+     *
+     * @throws UnsupportedOperationException
+     *             if this class is instantiated.
+     */
+    private AreaIndex() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Registers the default areas declared within {@link GameConstants}. This
+     * is done once on startup, before any plugins are loaded.
+     */
+    public static void init() {
+        register("wilderness", GameConstants.WILDERNESS, AreaAttribute.WILDERNESS);
+        register("multi-combat", GameConstants.MULTIPLE_COMBAT, AreaAttribute.MULTIPLE_COMBAT);
+    }
+
+    /**
+     * Registers the area {@code name} made up of {@code locations}, giving
+     * {@code attributes} to every position within it.
+     *
+     * @param name
+     *            the unique name of the area.
+     * @param locations
+     *            the locations that make up the area.
+     * @param attributes
+     *            the attributes given to every position within the area.
+     * @throws IllegalArgumentException
+     *             if an area with the same name has already been registered.
+     */
+    public static synchronized void register(String name, Collection<? extends Location> locations, AreaAttribute... attributes) {
+        Preconditions.checkArgument(!AREAS.containsKey(Objects.requireNonNull(name)), "area " + name + " is already registered");
+        int mask = Arrays.stream(attributes).mapToInt(AreaAttribute::getMask).reduce(0, (a, b) -> a | b);
+        AREAS.put(name, new Area(ImmutableList.copyOf(locations), mask));
+        masks = compile();
+    }
+
+    /**
+     * Registers the area {@code name} made up of {@code location}, giving
+     * {@code attributes} to every position within it.
+     *
+     * @param name
+     *            the unique name of the area.
+     * @param location
+     *            the location that makes up the area.
+     * @param attributes
+     *            the attributes given to every position within the area.
+     * @throws IllegalArgumentException
+     *             if an area with the same name has already been registered.
+     */
+    public static void register(String name, Location location, AreaAttribute... attributes) {
+        register(name, ImmutableList.of(location), attributes);
+    }
+
+    /**
+     * Unregisters the area {@code name}.
+     *
+     * @param name
+     *            the name of the area.
+     * @return {@code true} if the area was unregistered, {@code false} if no
+     *         area with that name is registered.
+     */
+    public static synchronized boolean unregister(String name) {
+        if (AREAS.remove(name) == null)
+            return false;
+        masks = compile();
+        return true;
+    }
+
+    /**
+     * Determines if {@code position} is within any area that has
+     * {@code attribute}.
+     *
+     * @param position
+     *            the position to determine if within the areas.
+     * @param attribute
+     *            the attribute the areas must have.
+     * @return {@code true} if the position is within any of those areas,
+     *         {@code false} otherwise.
+     */
+    public static boolean contains(Position position, AreaAttribute attribute) {
+        return (getMask(position) & attribute.getMask()) != 0;
+    }
+
+    /**
+     * Determines if {@code node} is within any area that has
+     * {@code attribute}.
+     *
+     * @param node
+     *            the node to determine if within the areas.
+     * @param attribute
+     *            the attribute the areas must have.
+     * @return {@code true} if the node is within any of those areas,
+     *         {@code false} otherwise.
+     */
+    public static boolean contains(Node node, AreaAttribute attribute) {
+        return contains(node.getPosition(), attribute);
+    }
+
+    /**
+     * Gets the mask of every attribute that applies to {@code position}.
+     *
+     * @param position
+     *            the position to get the attributes of.
+     * @return the mask of attributes.
+     */
+    public static int getMask(Position position) {
+        int[] region = masks[region(position.getX(), position.getY(), position.getZ())];
+        return region == null ? 0 : region[tile(position.getX(), position.getY())];
+    }
+
+    /**
+     * Compiles every registered area into new tables of attribute masks.
+     *
+     * @return the compiled tables.
+     */
+    private static int[][] compile() {
+        int[][] compiled = new int[4 << 16][];
+        Position position = new Position(0, 0);
+        for (Area area : AREAS.values()) {
+            for (Location location : area.locations) {
+                SquareLocation bounds = location.bounds();
+                position.setZ(bounds.getZ());
+                for (int x = Math.max(0, Math.min(bounds.getSwX(), bounds.getNeX())); x <= Math.max(bounds.getSwX(), bounds.getNeX()); x++) {
+                    for (int y = Math.max(0, Math.min(bounds.getSwY(), bounds.getNeY())); y <= Math.max(bounds.getSwY(), bounds
+                        .getNeY()); y++) {
+                        position.setX(x);
+                        position.setY(y);
+                        if (!location.inLocation(position))
+                            continue;
+                        int key = region(x, y, bounds.getZ());
+                        if (compiled[key] == null)
+                            compiled[key] = new int[REGION_SIZE * REGION_SIZE];
+                        compiled[key][tile(x, y)] |= area.mask;
+                    }
+                }
+            }
+        }
+        Map<Integer, int[]> uniform = new HashMap<>();
+        for (int key = 0; key < compiled.length; key++) {
+            int[] region = compiled[key];
+            if (region == null || Arrays.stream(region).anyMatch(m -> m != region[0]))
+                continue;
+            compiled[key] = region[0] == 0 ? null : uniform.computeIfAbsent(region[0], m -> region);
+        }
+        return compiled;
+    }
+
+    /**
+     * Packs the map region containing the coordinates into a single key.
+     *
+     * @param x
+     *            the {@code X} coordinate.
+     * @param y
+     *            the {@code Y} coordinate.
+     * @param z
+     *            the {@code Z} coordinate.
+     * @return the packed map region key.
+     */
+    private static int region(int x, int y, int z) {
+        return ((z & 0x3) << 16) | (((x >> 6) & 0xff) << 8) | ((y >> 6) & 0xff);
+    }
+
+    /**
+     * Packs the coordinates of a tile within its map region into a single
+     * key.
+     *
+     * @param x
+     *            the {@code X} coordinate.
+     * @param y
+     *            the {@code Y} coordinate.
+     * @return the packed tile key.
+     */
+    private static int tile(int x, int y) {
+        return ((x & (REGION_SIZE - 1)) << 6) | (y & (REGION_SIZE - 1));
+    }
+
+    /**
+     * A single area registered with the index.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    private static final class Area {
+
+        /**
+         * The locations that make up this area.
+         */
+        private final ImmutableList<Location> locations;
+
+        /**
+         * The mask of attributes given to every position within this area.
+         */
+        private final int mask;
+
+        /**
+         * Creates a new {@link Area}.
+         *
+         * @param locations
+         *            the locations that make up this area.
+         * @param mask
+         *            the mask of attributes given to every position within
+         *            this area.
+         */
+        Area(ImmutableList<Location> locations, int mask) {
+            this.locations = locations;
+            this.mask = mask;
+        }
+    }
+}
@@ -74,6 +74,11 @@ public final class CircleLocation extends Location {
         return Math.pow((position.getX() - x), 2) + Math.pow((position.getY() - y), 2) <= Math.pow(radius, 2);
     }
 
+    @Override
+    public SquareLocation bounds() {
+        return new SquareLocation(x, y, z, radius);
+    }
+
     @Override
     public String toString() {
         return "CIRCLE_LOCATION[x= " + x + ", y= " + y + ", z= " + z + ", " + "radius= " + radius + "]";
@@ -2,7 +2,6 @@ package com.asteria.game.location;
 
 import java.util.Arrays;
 
-import com.asteria.game.GameConstants;
 import com.asteria.game.Node;
 
 /**
@@ -33,6 +32,18 @@ public abstract class Location {
         throw new UnsupportedOperationException("No algorithm to generate a " + "pseudo-random position from this location!");
     }
 
+    /**
+     * Gets the smallest square location that contains every position within
+     * this location.
+     *
+     * @return the bounds of this location.
+     * @throws UnsupportedOperationException
+     *             by default, if this method is not overridden.
+     */
+    public SquareLocation bounds() {
+        throw new UnsupportedOperationException("No algorithm to determine " + "the bounds of this location!");
+    }
+
     /**
      * Determines if the specified position is in <b>all</b> of the specified
      * locations.
@@ -64,26 +75,28 @@ public abstract class Location {
     }
 
     /**
-     * Determines if {@code node} is in any of the multicombat locations.
+     * Determines if {@code node} is in any of the multicombat areas registered
+     * with the {@link AreaIndex}.
      *
      * @param node
-     *            the node to determine if in the locations.
-     * @return {@code true} if the node is in any of these locations,
-     *         {@code false} otherwise.
+     *            the node to determine if in the areas.
+     * @return {@code true} if the node is in any of these areas, {@code false}
+     *         otherwise.
      */
     public static boolean inMultiCombat(Node node) {
-        return GameConstants.MULTIPLE_COMBAT.stream().anyMatch($it -> $it.inLocation(node.getPosition()));
+        return AreaIndex.contains(node, AreaAttribute.MULTIPLE_COMBAT);
     }
 
     /**
-     * Determines if {@code node} is in any of the wilderness locations.
+     * Determines if {@code node} is in any of the wilderness areas registered
+     * with the {@link AreaIndex}.
      *
      * @param node
-     *            the node to determine if in the locations.
-     * @return {@code true} if the node is in any of these locations,
-     *         {@code false} otherwise.
+     *            the node to determine if in the areas.
+     * @return {@code true} if the node is in any of these areas, {@code false}
+     *         otherwise.
      */
     public static boolean inWilderness(Node node) {
-        return GameConstants.WILDERNESS.stream().anyMatch($it -> $it.inLocation(node.getPosition()));
+        return AreaIndex.contains(node, AreaAttribute.WILDERNESS);
     }
 }
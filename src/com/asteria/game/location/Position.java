@@ -128,6 +128,23 @@ public class Position {
         return p.x <= 14 && p.x >= -15 && p.y <= 14 && p.y >= -15;
     }
 
+    /**
+     * Determines if this position is within the {@code 104x104} map area that
+     * is loaded by the client around {@code region}, the position the client
+     * last loaded its map region for. The {@code Z} coordinate is not
+     * considered.
+     *
+     * @param region
+     *            the position the map area was loaded for.
+     * @return {@code true} if this position is within the map area,
+     *         {@code false} otherwise.
+     */
+    public final boolean isWithinMapArea(Position region) {
+        int localX = getLocalX(region);
+        int localY = getLocalY(region);
+        return localX >= 0 && localX < 104 && localY >= 0 && localY < 104;
+    }
+
     /**
      * Determines if this position is within {@code amount} distance of
      * {@code other}.
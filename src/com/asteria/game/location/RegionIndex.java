@@ -0,0 +1,274 @@
+package com.asteria.game.location;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.asteria.game.Node;
+
+/**
+ * A spatial index that buckets {@link Node}s by the {@code 8x8} region they're
+ * standing in. This allows for "nodes within {@code n} tiles of a position"
+ * queries to only inspect the handful of regions surrounding that position,
+ * rather than having to scan every single node in the world.
+ * <p>
+ * <p>
+ * Please note that this index is not thread safe. Modifications should only
+ * ever be made on the game thread, or by the startup loaders before the game
+ * thread is started, although concurrent reads are safe as long as no
+ * modifications are being made at the same time (as is the case during the
+ * concurrent stages of the game synchronization).
+ *
+ * @author lare96 <http://github.com/lare96>
+ * @param <E>
+ *            the type of node being indexed.
+ */
+public final class RegionIndex<E extends Node> {
+
+    /**
+     * The map of region keys to the nodes currently within those regions.
+     */
+    private final Map<Integer, Set<E>> regions = new HashMap<>();
+
+    /**
+     * The map of indexed nodes to the region key they were last indexed under.
+     */
+    private final Map<E, Integer> keys = new IdentityHashMap<>();
+
+    /**
+     * Adds {@code e} to this index under the region it's currently standing
+     * in. If the node is already indexed, it is simply updated instead.
+     *
+     * @param e
+     *            the node to add to this index.
+     */
+    public void add(E e) {
+        Objects.requireNonNull(e);
+        if (keys.containsKey(e)) {
+            update(e);
+            return;
+        }
+        int key = key(e.getPosition());
+        keys.put(e, key);
+        region(key).add(e);
+    }
+
+    /**
+     * Removes {@code e} from this index.
+     *
+     * @param e
+     *            the node to remove from this index.
+     * @return {@code true} if the node was removed, {@code false} if it was
+     *         never indexed to begin with.
+     */
+    public boolean remove(E e) {
+        Integer key = keys.remove(Objects.requireNonNull(e));
+        if (key == null)
+            return false;
+        unlink(key, e);
+        return true;
+    }
+
+    /**
+     * Moves {@code e} into the bucket of the region it's currently standing
+     * in, if it has changed regions since it was last indexed. This does
+     * nothing if the node is not indexed.
+     *
+     * @param e
+     *            the node to update.
+     * @return {@code true} if the node changed regions, {@code false}
+     *         otherwise.
+     */
+    public boolean update(E e) {
+        Integer key = keys.get(Objects.requireNonNull(e));
+        if (key == null)
+            return false;
+        int newKey = key(e.getPosition());
+        if (key == newKey)
+            return false;
+        unlink(key, e);
+        keys.put(e, newKey);
+        region(newKey).add(e);
+        return true;
+    }
+
+    /**
+     * Determines if {@code e} is currently indexed.
+     *
+     * @param e
+     *            the node to determine if indexed.
+     * @return {@code true} if the node is indexed, {@code false} otherwise.
+     */
+    public boolean contains(E e) {
+        return keys.containsKey(e);
+    }
+
+    /**
+     * Executes {@code action} for every node within {@code radius} tiles of
+     * {@code position}, using the same rules as
+     * {@link Position#withinDistance(Position, int)}.
+     *
+     * @param position
+     *            the position to search around.
+     * @param radius
+     *            the radius in tiles to search.
+     * @param action
+     *            the action to execute for every node found.
+     */
+    public void forEach(Position position, int radius, Consumer<? super E> action) {
+        int z = position.getZ();
+        int minX = (position.getX() - radius) >> 3;
+        int maxX = (position.getX() + radius) >> 3;
+        int minY = (position.getY() - radius) >> 3;
+        int maxY = (position.getY() + radius) >> 3;
+        for (int regionX = minX; regionX <= maxX; regionX++) {
+            for (int regionY = minY; regionY <= maxY; regionY++) {
+                Set<E> nodes = regions.get(key(regionX, regionY, z));
+                if (nodes == null)
+                    continue;
+                for (E e : nodes) {
+                    if (e.getPosition().withinDistance(position, radius))
+                        action.accept(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes {@code action} for every node within the rectangular area
+     * between {@code minX}, {@code minY} and {@code maxX}, {@code maxY}
+     * inclusive, on height level {@code z}.
+     *
+     * @param minX
+     *            the lowest {@code X} coordinate of the area.
+     * @param minY
+     *            the lowest {@code Y} coordinate of the area.
+     * @param maxX
+     *            the highest {@code X} coordinate of the area.
+     * @param maxY
+     *            the highest {@code Y} coordinate of the area.
+     * @param z
+     *            the height level of the area.
+     * @param action
+     *            the action to execute for every node found.
+     */
+    public void forEach(int minX, int minY, int maxX, int maxY, int z, Consumer<? super E> action) {
+        for (int regionX = minX >> 3; regionX <= maxX >> 3; regionX++) {
+            for (int regionY = minY >> 3; regionY <= maxY >> 3; regionY++) {
+                Set<E> nodes = regions.get(key(regionX, regionY, z));
+                if (nodes == null)
+                    continue;
+                for (E e : nodes) {
+                    Position position = e.getPosition();
+                    if (position.getX() >= minX && position.getX() <= maxX && position.getY() >= minY && position.getY() <= maxY)
+                        action.accept(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes {@code action} for every node within this index, in no
+     * particular order.
+     *
+     * @param action
+     *            the action to execute for every node.
+     */
+    public void forEach(Consumer<? super E> action) {
+        keys.keySet().forEach(action);
+    }
+
+    /**
+     * Retrieves every node within {@code radius} tiles of {@code position},
+     * using the same rules as {@link Position#withinDistance(Position, int)}.
+     *
+     * @param position
+     *            the position to search around.
+     * @param radius
+     *            the radius in tiles to search.
+     * @return a list of the nodes found, empty if none were found.
+     */
+    public List<E> getWithin(Position position, int radius) {
+        List<E> nodes = new ArrayList<>();
+        forEach(position, radius, nodes::add);
+        return nodes;
+    }
+
+    /**
+     * Determines the amount of nodes within this index.
+     *
+     * @return the amount of indexed nodes.
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Removes every single node from this index.
+     */
+    public void clear() {
+        regions.clear();
+        keys.clear();
+    }
+
+    /**
+     * Retrieves the bucket for {@code key}, creating it if it doesn't exist.
+     *
+     * @param key
+     *            the key of the region.
+     * @return the bucket of nodes for the region.
+     */
+    private Set<E> region(int key) {
+        return regions.computeIfAbsent(key, k -> Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Removes {@code e} from the bucket for {@code key}, discarding the bucket
+     * if it's empty afterwards.
+     *
+     * @param key
+     *            the key of the region.
+     * @param e
+     *            the node to remove from the region.
+     */
+    private void unlink(int key, E e) {
+        Set<E> nodes = regions.get(key);
+        if (nodes == null)
+            return;
+        nodes.remove(e);
+        if (nodes.isEmpty())
+            regions.remove(key);
+    }
+
+    /**
+     * Packs the region containing {@code position} into a single key.
+     *
+     * @param position
+     *            the position to pack the region of.
+     * @return the packed region key.
+     */
+    private static int key(Position position) {
+        return key(position.getX() >> 3, position.getY() >> 3, position.getZ());
+    }
+
+    /**
+     * Packs the region coordinates and height into a single key.
+     *
+     * @param regionX
+     *            the {@code X} coordinate of the region.
+     * @param regionY
+     *            the {@code Y} coordinate of the region.
+     * @param z
+     *            the {@code Z} coordinate.
+     * @return the packed region key.
+     */
+    private static int key(int regionX, int regionY, int z) {
+        return ((z & 0x3) << 28) | ((regionX & 0x3fff) << 14) | (regionY & 0x3fff);
+    }
+}
@@ -106,6 +106,11 @@ public final class SquareLocation extends Location {
         return "SQUARE_LOCATION[swX= " + swX + ", swY= " + swY + ", neX= " + neX + ", neY= " + neY + "]";
     }
 
+    @Override
+    public SquareLocation bounds() {
+        return this;
+    }
+
     @Override
     public Position random() {
         RandomGen r = new RandomGen();
@@ -64,16 +64,12 @@ public final class ObjectNode extends Node {
 
     @Override
     public void create() {
-        World.getPlayers().forEach(p -> {
-            if (super.getPosition().withinDistance(p.getPosition(), 60)) {
-                p.getMessages().sendObject(this);
-            }
-        });
+        World.forEachViewer(super.getPosition(), p -> p.getMessages().sendObject(this));
     }
 
     @Override
     public void dispose() {
-        World.getPlayers().forEach(p -> p.getMessages().sendRemoveObject(super.getPosition()));
+        World.forEachViewer(super.getPosition(), p -> p.getMessages().sendRemoveObject(super.getPosition()));
     }
 
     @Override
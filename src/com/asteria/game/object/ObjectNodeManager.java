@@ -1,7 +1,8 @@
 package com.asteria.game.object;
 
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -9,24 +10,34 @@ import java.util.function.Consumer;
 import com.asteria.game.World;
 import com.asteria.game.character.player.Player;
 import com.asteria.game.location.Position;
+import com.asteria.game.location.RegionIndex;
 import com.asteria.task.Task;
 
 /**
- * The node manager that manages all registered object nodes.
+ * The node manager that manages all registered object nodes. Objects are keyed
+ * by the tile they're on and bucketed by region, so that looking up the object
+ * on a tile or the objects within a player's map area never has to scan every
+ * object in the world.
  *
  * @author lare96 <http://github.com/lare96>
  */
 public final class ObjectNodeManager {
 
     /**
-     * The hash collection of registered objects.
+     * The spatial index of registered objects, bucketed by region.
      */
-    public static final Set<ObjectNode> OBJECTS = new HashSet<>();
+    public static final RegionIndex<ObjectNode> OBJECTS = new RegionIndex<>();
 
     /**
-     * The hash collection of objects that will be removed.
+     * The map of packed tile positions to the registered objects on them.
      */
-    public static final Set<Position> REMOVE_OBJECTS = new HashSet<>();
+    private static final Map<Integer, ObjectNode> TILES = new HashMap<>();
+
+    /**
+     * The map of packed regions to the positions of the objects within them
+     * that will be removed.
+     */
+    private static final Map<Integer, Set<Position>> REMOVE_OBJECTS = new HashMap<>();
 
     /**
      * The method that attempts to register {@code object}.
@@ -40,12 +51,11 @@ public final class ObjectNodeManager {
         if (object.isRegistered())
             return false;
         unregister(object.getPosition());
-        if (OBJECTS.add(object)) {
-            object.setRegistered(true);
-            object.create();
-            return true;
-        }
-        return false;
+        TILES.put(tile(object.getPosition()), object);
+        OBJECTS.add(object);
+        object.setRegistered(true);
+        object.create();
+        return true;
     }
 
     /**
@@ -113,16 +123,13 @@ public final class ObjectNodeManager {
      *         otherwise.
      */
     public static boolean unregister(Position position) {
-        for (Iterator<ObjectNode> iter = OBJECTS.iterator(); iter.hasNext();) {
-            ObjectNode next = iter.next();
-            if (next.getPosition().equals(position)) {
-                next.setRegistered(false);
-                next.dispose();
-                iter.remove();
-                return true;
-            }
-        }
-        return false;
+        ObjectNode object = TILES.remove(tile(position));
+        if (object == null)
+            return false;
+        OBJECTS.remove(object);
+        object.setRegistered(false);
+        object.dispose();
+        return true;
     }
 
     /**
@@ -134,24 +141,87 @@ public final class ObjectNodeManager {
      *         if no object is found.
      */
     public static Optional<ObjectNode> getObject(Position position) {
-        return OBJECTS.stream().filter(obj -> obj.getPosition().equals(position)).findFirst();
+        return Optional.ofNullable(TILES.get(tile(position)));
+    }
+
+    /**
+     * The method that registers the object on {@code position} to be removed
+     * for every player that loads the region it's in.
+     *
+     * @param position
+     *            the position of the object to remove.
+     * @return {@code true} if the position was registered, {@code false} if it
+     *         already was.
+     */
+    public static boolean registerRemoval(Position position) {
+        return REMOVE_OBJECTS.computeIfAbsent(region(position.getX() >> 3, position.getY() >> 3, position.getZ()),
+            k -> new HashSet<>()).add(position.copy());
+    }
+
+    /**
+     * The method that determines if the object on {@code position} has been
+     * registered to be removed.
+     *
+     * @param position
+     *            the position of the object.
+     * @return {@code true} if the object will be removed, {@code false}
+     *         otherwise.
+     */
+    public static boolean isRemoved(Position position) {
+        Set<Position> positions = REMOVE_OBJECTS.get(region(position.getX() >> 3, position.getY() >> 3, position.getZ()));
+        return positions != null && positions.contains(position);
     }
 
     /**
      * The method that updates all objects in the region for {@code player}.
+     * Only the objects and removals on the player's height level within the
+     * map area that was just loaded are sent.
      *
      * @param player
      *            the player to update objects for.
      */
     public static void updateRegion(Player player) {
-        OBJECTS.forEach(obj -> {
+        int minX = player.getCurrentRegion().getRegionX() * 8;
+        int minY = player.getCurrentRegion().getRegionY() * 8;
+        int maxX = minX + 103;
+        int maxY = minY + 103;
+        int z = player.getPosition().getZ();
+        OBJECTS.forEach(minX, minY, maxX, maxY, z, obj -> {
             player.getMessages().sendRemoveObject(obj.getPosition());
-            if (obj.getPosition().withinDistance(player.getPosition(), 60)) {
-                player.getMessages().sendObject(obj);
-            }
-        });
-        REMOVE_OBJECTS.forEach(obj -> {
-            player.getMessages().sendRemoveObject(obj);
+            player.getMessages().sendObject(obj);
         });
+        for (int regionX = minX >> 3; regionX <= maxX >> 3; regionX++) {
+            for (int regionY = minY >> 3; regionY <= maxY >> 3; regionY++) {
+                Set<Position> positions = REMOVE_OBJECTS.get(region(regionX, regionY, z));
+                if (positions != null)
+                    positions.forEach(player.getMessages()::sendRemoveObject);
+            }
+        }
+    }
+
+    /**
+     * Packs {@code position} into a single key.
+     *
+     * @param position
+     *            the position to pack.
+     * @return the packed tile key.
+     */
+    private static int tile(Position position) {
+        return ((position.getZ() & 0x3) << 28) | ((position.getX() & 0x3fff) << 14) | (position.getY() & 0x3fff);
+    }
+
+    /**
+     * Packs the region coordinates and height into a single key.
+     *
+     * @param regionX
+     *            the {@code X} coordinate of the region.
+     * @param regionY
+     *            the {@code Y} coordinate of the region.
+     * @param z
+     *            the {@code Z} coordinate.
+     * @return the packed region key.
+     */
+    private static int region(int regionX, int regionY, int z) {
+        return ((z & 0x3) << 28) | ((regionX & 0x7ff) << 11) | (regionY & 0x7ff);
     }
 }
@@ -310,6 +310,24 @@ public final class Shop {
         return true;
     }
 
+    /**
+     * Migrates the players viewing {@code previous} over to this shop, once
+     * {@code previous} has been replaced by this shop when the shops were
+     * reloaded. The restocking of {@code previous} is stopped and the players
+     * are sent the items of this shop.
+     *
+     * @param previous
+     *            the shop that was replaced by this shop.
+     */
+    public void migrate(Shop previous) {
+        if (previous.restockTask != null && previous.restockTask.isRunning())
+            previous.restockTask.cancel();
+        players.addAll(previous.players);
+        previous.players.clear();
+        int size = container.size();
+        players.stream().filter(Objects::nonNull).forEach(p -> p.getMessages().sendItemsOnInterface(3900, container.container(), size));
+    }
+
     /**
      * Determines if the items in the container need to be restocked.
      *
@@ -1,54 +1,62 @@
 package com.asteria.game.sync;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Phaser;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
 
 import com.asteria.game.GameConstants;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * A synchronization executor that executes {@link GameSyncTask}s. These have
  * support for both concurrent and sequential synchronization tasks, and are
  * smart enough to determine when each should be used on a task-to-task basis.
- * 
+ * <p>
+ * <p>
+ * Concurrent tasks are executed on a work-stealing {@link ForkJoinPool} by
+ * recursively splitting the index range of the backing character list into
+ * chunks, rather than submitting a single task for every character. The
+ * calling thread only has to join once per synchronization task.
+ *
  * @author lare96 <http://github.org/lare96>
  */
 public final class GameSyncExecutor {
 
     /**
-     * The executor that will execute the synchronization tasks. This value may
-     * or may not be {@code null}.
+     * The pool that will execute the synchronization tasks. This value may or
+     * may not be {@code null}.
      */
-    private final ExecutorService service;
+    private final ForkJoinPool pool;
 
     /**
-     * The synchronizer that ensures that the thread waits until tasks are
-     * completed before proceeding. This value may or may not be {@code null}.
+     * Creates a new {@link GameSyncExecutor}.
+     *
+     * @param parallelism
+     *            the amount of threads used for concurrent synchronization
+     *            tasks. If this is {@code 1} or lower, every synchronization
+     *            task is executed sequentially.
      */
-    private final Phaser phaser;
+    public GameSyncExecutor(int parallelism) {
+        this.pool = parallelism > 1 ? create(parallelism) : null;
+    }
 
     /**
      * Creates a new {@link GameSyncExecutor}. It automatically determines how
      * many threads; if any, are needed for game synchronization.
      */
     public GameSyncExecutor() {
-        this.service = GameConstants.CONCURRENCY ? create(Runtime.getRuntime().availableProcessors()) : null;
-        this.phaser = GameConstants.CONCURRENCY ? new Phaser(1) : null;
+        this(GameConstants.CONCURRENCY ? GameConstants.SYNC_THREADS : 1);
     }
 
     /**
      * Submits {@code syncTask} to be executed as a synchronization task under
      * this executor. This method can and probably will block the calling thread
      * until it completes.
-     * 
+     *
      * @param syncTask
      *            the synchronization task to execute.
      */
     public void sync(GameSyncTask syncTask) {
-        if (service == null || phaser == null || !syncTask.isConcurrent()) {
+        if (pool == null || !syncTask.isConcurrent()) {
             for (int index = 1; index < syncTask.getCapacity(); index++) {
                 if (!syncTask.checkIndex(index))
                     continue;
@@ -56,41 +64,106 @@ public final class GameSyncExecutor {
             }
             return;
         }
+        pool.invoke(new GameSyncChunk(syncTask, 1, syncTask.getCapacity()));
+    }
 
-        phaser.bulkRegister(syncTask.getAmount());
-        for (int index = 1; index < syncTask.getCapacity(); index++) {
-            if (!syncTask.checkIndex(index))
-                continue;
-            final int finalIndex = index;
-            service.execute(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        syncTask.execute(finalIndex);
-                    } finally {
-                        phaser.arriveAndDeregister();
-                    }
-                }
-            });
-        }
-        phaser.arriveAndAwaitAdvance();
+    /**
+     * Determines if this executor is able to execute concurrent
+     * synchronization tasks.
+     *
+     * @return {@code true} if concurrent tasks are executed concurrently,
+     *         {@code false} if everything is executed sequentially.
+     */
+    public boolean isConcurrent() {
+        return pool != null;
+    }
+
+    /**
+     * Gets the amount of threads used for concurrent synchronization tasks.
+     *
+     * @return the amount of threads, or {@code 1} if everything is executed
+     *         sequentially.
+     */
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * Creates and configures the pool for this game sync executor.
+     *
+     * @param parallelism
+     *            the amount of threads to create this pool with.
+     * @return the newly created and configured pool.
+     */
+    private ForkJoinPool create(int parallelism) {
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("GameSyncThread-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
     }
 
     /**
-     * Creates and configures the update service for this game sync executor.
-     * The returned executor is <b>unconfigurable</b> meaning it's configuration
-     * can no longer be modified.
-     * 
-     * @param nThreads
-     *            the amount of threads to create this service.
-     * @return the newly created and configured service.
+     * A chunk of the index range of a {@link GameSyncTask}. Chunks split
+     * themselves in half until they roughly contain
+     * {@link GameConstants#SYNC_CHUNK_SIZE} characters, based on how densely
+     * populated the backing character list is, and idle threads steal the
+     * halves that haven't been started yet.
+     *
+     * @author lare96 <http://github.org/lare96>
      */
-    private ExecutorService create(int nThreads) {
-        if (nThreads <= 1)
-            return null;
-        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(nThreads);
-        executor.setRejectedExecutionHandler(new CallerRunsPolicy());
-        executor.setThreadFactory(new ThreadFactoryBuilder().setNameFormat("GameSyncThread").build());
-        return Executors.unconfigurableExecutorService(executor);
+    private static final class GameSyncChunk extends RecursiveAction {
+
+        /**
+         * The unique serial version identifier.
+         */
+        private static final long serialVersionUID = 6426187239424960476L;
+
+        /**
+         * The synchronization task being executed.
+         */
+        private final GameSyncTask syncTask;
+
+        /**
+         * The first index of this chunk, inclusive.
+         */
+        private final int low;
+
+        /**
+         * The last index of this chunk, exclusive.
+         */
+        private final int high;
+
+        /**
+         * Creates a new {@link GameSyncChunk}.
+         *
+         * @param syncTask
+         *            the synchronization task being executed.
+         * @param low
+         *            the first index of this chunk, inclusive.
+         * @param high
+         *            the last index of this chunk, exclusive.
+         */
+        public GameSyncChunk(GameSyncTask syncTask, int low, int high) {
+            this.syncTask = syncTask;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            int size = high - low;
+            long expected = ((long) size * syncTask.getAmount()) / Math.max(1, syncTask.getCapacity());
+            if (size > 1 && expected > GameConstants.SYNC_CHUNK_SIZE) {
+                int middle = (low + high) >>> 1;
+                invokeAll(new GameSyncChunk(syncTask, low, middle), new GameSyncChunk(syncTask, middle, high));
+                return;
+            }
+            for (int index = low; index < high; index++) {
+                if (!syncTask.checkIndex(index))
+                    continue;
+                syncTask.execute(index);
+            }
+        }
     }
 }
@@ -33,21 +33,55 @@ public abstract class GameSyncTask {
      */
     private final boolean concurrent;
 
+    /**
+     * The name of this synchronization task, used when profiling.
+     */
+    private final String name;
+
     /**
      * Creates a new {@link GameSyncTask}.
      *
+     * @param name
+     *            the name of this synchronization task, used when profiling.
      * @param type
      *            the type of character using this synchronization task.
      * @param concurrent
      *            the flag that determines if this should be executed
      *            concurrently.
      */
-    public GameSyncTask(NodeType type, boolean concurrent) {
+    public GameSyncTask(String name, NodeType type, boolean concurrent) {
         Preconditions.checkArgument(type == NodeType.PLAYER || type == NodeType.NPC, "Invalid node type.");
         this.amount = type == NodeType.PLAYER ? World.getPlayers().size() : World.getNpcs().size();
         this.capacity = type == NodeType.PLAYER ? World.getPlayers().capacity() : World.getNpcs().capacity();
         this.type = type;
         this.concurrent = concurrent;
+        this.name = Preconditions.checkNotNull(name);
+    }
+
+    /**
+     * Creates a new {@link GameSyncTask} named after the type of character
+     * using it.
+     *
+     * @param type
+     *            the type of character using this synchronization task.
+     * @param concurrent
+     *            the flag that determines if this should be executed
+     *            concurrently.
+     */
+    public GameSyncTask(NodeType type, boolean concurrent) {
+        this(type.name().toLowerCase(), type, concurrent);
+    }
+
+    /**
+     * Creates a new {@link GameSyncTask} that will be executed concurrently.
+     *
+     * @param name
+     *            the name of this synchronization task, used when profiling.
+     * @param type
+     *            the type of character using this synchronization task.
+     */
+    public GameSyncTask(String name, NodeType type) {
+        this(name, type, true);
     }
 
     /**
@@ -106,4 +140,13 @@ public abstract class GameSyncTask {
     public final boolean isConcurrent() {
         return concurrent;
     }
+
+    /**
+     * Gets the name of this synchronization task, used when profiling.
+     * 
+     * @return the name of this task.
+     */
+    public final String getName() {
+        return name;
+    }
 }
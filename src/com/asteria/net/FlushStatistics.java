@@ -0,0 +1,123 @@
+package com.asteria.net;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class that keeps track of how many messages and bytes are written to
+ * sessions every time their outbound buffers are flushed. These counters can
+ * be used to see how effective write coalescing is under load.
+ * <p>
+ * <p>
+ * This class is safe for use across multiple threads.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class FlushStatistics {
+
+    /**
+     * The total amount of flushes that have been recorded.
+     */
+    private final LongAdder flushes = new LongAdder();
+
+    /**
+     * The total amount of messages that have been flushed.
+     */
+    private final LongAdder messages = new LongAdder();
+
+    /**
+     * The total amount of bytes that have been flushed.
+     */
+    private final LongAdder bytes = new LongAdder();
+
+    /**
+     * The largest amount of messages that have been written in one flush.
+     */
+    private final AtomicLong peakMessages = new AtomicLong();
+
+    /**
+     * The largest amount of bytes that have been written in one flush.
+     */
+    private final AtomicLong peakBytes = new AtomicLong();
+
+    @Override
+    public String toString() {
+        return "FLUSHES[count= " + getFlushes() + ", msgs/flush= " + String.format("%.2f", getAverageMessages()) + ", bytes/flush= " + String
+            .format("%.2f", getAverageBytes()) + ", peak msgs= " + peakMessages.get() + ", peak bytes= " + peakBytes.get() + "]";
+    }
+
+    /**
+     * Records a single flush of {@code messageCount} messages totaling
+     * {@code byteCount} bytes.
+     *
+     * @param messageCount
+     *            the amount of messages that were flushed.
+     * @param byteCount
+     *            the amount of bytes that were flushed.
+     */
+    public void record(int messageCount, int byteCount) {
+        flushes.increment();
+        messages.add(messageCount);
+        bytes.add(byteCount);
+        peakMessages.accumulateAndGet(messageCount, Math::max);
+        peakBytes.accumulateAndGet(byteCount, Math::max);
+    }
+
+    /**
+     * Resets all of the counters back to {@code 0}.
+     */
+    public void reset() {
+        flushes.reset();
+        messages.reset();
+        bytes.reset();
+        peakMessages.set(0);
+        peakBytes.set(0);
+    }
+
+    /**
+     * Gets the total amount of flushes that have been recorded.
+     *
+     * @return the amount of flushes.
+     */
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    /**
+     * Gets the total amount of messages that have been flushed.
+     *
+     * @return the amount of messages.
+     */
+    public long getMessages() {
+        return messages.sum();
+    }
+
+    /**
+     * Gets the total amount of bytes that have been flushed.
+     *
+     * @return the amount of bytes.
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * Gets the average amount of messages written per flush.
+     *
+     * @return the average amount of messages.
+     */
+    public double getAverageMessages() {
+        long count = getFlushes();
+        return count == 0 ? 0 : (double) getMessages() / count;
+    }
+
+    /**
+     * Gets the average amount of bytes written per flush.
+     *
+     * @return the average amount of bytes.
+     */
+    public double getAverageBytes() {
+        long count = getFlushes();
+        return count == 0 ? 0 : (double) getBytes() / count;
+    }
+}
@@ -84,6 +84,26 @@ public final class NetworkConstants {
         RSA_EXPONENT = new BigInteger(
             "58942123322685908809689084302625256728774551587748168286651364002223076520293763732441711633712538400732268844501356343764421742749024359146319836858905124072353297696448255112361453630421295623429362610999525258756790291981270575779800669035081348981858658116089267888135561190976376091835832053427710797233");
 
+    /**
+     * The flag that determines if outgoing messages should be coalesced. If
+     * {@code true}, messages are written without flushing throughout the game
+     * sequence and every session is flushed once at the end of it. Otherwise
+     * each message is flushed as soon as it's queued.
+     */
+    public static final boolean BATCH_MESSAGES = true;
+
+    /**
+     * The amount of threads that will decode login requests and load character
+     * files, away from the networking threads.
+     */
+    public static final int LOGIN_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * The maximum amount of login requests that can be waiting for a login
+     * worker. Any requests received beyond this are rejected immediately.
+     */
+    public static final int LOGIN_QUEUE_SIZE = 200;
+
     /**
      * The maximum amount of messages that can be decoded in one sequence.
      */
@@ -5,10 +5,12 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.SocketChannel;
 
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.asteria.game.World;
 import com.asteria.game.character.player.IOState;
@@ -18,9 +20,12 @@ import com.asteria.game.character.player.serialize.PlayerSerialization;
 import com.asteria.net.codec.MessageDecoder;
 import com.asteria.net.codec.MessageEncoder;
 import com.asteria.net.login.LoginResponse;
+import com.asteria.net.login.LoginWorkerPool;
+import com.asteria.net.login.PostLoginHandshakeHandler;
 import com.asteria.net.message.InputMessage;
 import com.asteria.net.message.InputMessageListener;
 import com.asteria.net.message.LoginDetailsMessage;
+import com.asteria.net.message.LoginRequestMessage;
 import com.asteria.net.message.Message;
 import com.asteria.net.message.MessageBuilder;
 import com.asteria.utility.TextUtils;
@@ -34,11 +39,32 @@ import com.asteria.utility.TextUtils;
  */
 public final class PlayerIO {
 
+    /**
+     * The statistics for the flushes done by every session.
+     */
+    private static final FlushStatistics STATISTICS = new FlushStatistics();
+
+    /**
+     * The pool of workers that will complete login requests for every session.
+     */
+    private static final LoginWorkerPool LOGIN_WORKERS = new LoginWorkerPool(NetworkConstants.LOGIN_THREADS,
+        NetworkConstants.LOGIN_QUEUE_SIZE);
+
     /**
      * The queue of messages that will be handled on the next sequence.
      */
     private final Queue<InputMessage> messageQueue = new ConcurrentLinkedQueue<>();
 
+    /**
+     * The amount of messages written since the last flush.
+     */
+    private final AtomicInteger pendingMessages = new AtomicInteger();
+
+    /**
+     * The amount of bytes written since the last flush.
+     */
+    private final AtomicInteger pendingBytes = new AtomicInteger();
+
     /**
      * The channel that will manage the connection for this player.
      */
@@ -84,16 +110,51 @@ public final class PlayerIO {
 
     /**
      * Queues the {@code msg} for this session to be encoded and sent to the
-     * client.
+     * client. If {@link NetworkConstants#BATCH_MESSAGES} is enabled the
+     * message will not actually be sent until {@code flushQueuedMessages()}
+     * is called at the end of the game sequence.
+     * <p>
+     * <p>
+     * Ownership of {@code msg} is transferred to this session, it will be
+     * released once it has been encoded or if it ends up being dropped.
      *
      * @param msg
      *            the message to queue.
      */
     public void queue(MessageBuilder msg) {
+        try {
+            if (!channel.isOpen()) {
+                msg.release();
+                return;
+            }
+            if (!NetworkConstants.BATCH_MESSAGES) {
+                channel.writeAndFlush(msg);
+                return;
+            }
+            pendingMessages.incrementAndGet();
+            pendingBytes.addAndGet(msg.buffer().writerIndex());
+            channel.write(msg);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            channel.close();
+        }
+    }
+
+    /**
+     * Flushes all of the messages written to this session since the last
+     * flush in a single operation. This does nothing if no messages have been
+     * written.
+     */
+    public void flushQueuedMessages() {
+        int messages = pendingMessages.getAndSet(0);
+        if (messages == 0)
+            return;
+        int bytes = pendingBytes.getAndSet(0);
         try {
             if (!channel.isOpen())
                 return;
-            channel.writeAndFlush(msg);
+            channel.flush();
+            STATISTICS.record(messages, bytes);
         } catch (Exception ex) {
             ex.printStackTrace();
             channel.close();
@@ -109,12 +170,17 @@ public final class PlayerIO {
     public void handleIncomingMessage(Message msg) {
         switch (state) {
 
-        // Handle the login details, send the final response to the client
-        // before queuing the session over to the main game thread to be logged
-        // in on the next sequence.
+        // Hand the login request over to a login worker, which will decode and
+        // validate the login details before the final response is sent to the
+        // client. Reject the request straight away if the workers are swamped.
         case LOGGING_IN:
-            if (msg instanceof LoginDetailsMessage)
-                finalizeDetails((LoginDetailsMessage) msg);
+            if (msg instanceof LoginRequestMessage) {
+                LoginRequestMessage request = (LoginRequestMessage) msg;
+                if (!LOGIN_WORKERS.submit(() -> completeRequest(request))) {
+                    response = LoginResponse.LOGIN_SERVER_OFFLINE;
+                    finalizeDetails(request.getCtx(), null);
+                }
+            }
             break;
 
         // We are already logged in, handle incoming messages from the client by
@@ -122,8 +188,12 @@ public final class PlayerIO {
         // sequence.
         case LOGGED_IN:
             if (msg instanceof InputMessage) {
-                if (messageQueue.size() <= NetworkConstants.DECODE_LIMIT)
-                    messageQueue.add((InputMessage) msg);
+                InputMessage inputMsg = (InputMessage) msg;
+                if (messageQueue.size() <= NetworkConstants.DECODE_LIMIT) {
+                    messageQueue.add(inputMsg);
+                } else {
+                    inputMsg.getPayload().release();
+                }
             }
             break;
         default:
@@ -132,13 +202,32 @@ public final class PlayerIO {
     }
 
     /**
-     * Ensures that the login details are valid and completes the last part of
-     * the login protocol by sending the final login response code.
+     * Decodes and validates the login details within {@code request}, then
+     * hands the session back to its networking thread to send the final login
+     * response code. This is executed by a login worker.
+     * 
+     * @param request
+     *            the message containing the login request.
+     */
+    private void completeRequest(LoginRequestMessage request) {
+        ChannelHandlerContext ctx = request.getCtx();
+        try {
+            LoginDetailsMessage msg = PostLoginHandshakeHandler.decodeBlock(request);
+            validateDetails(msg);
+            ctx.executor().execute(() -> finalizeDetails(ctx, msg));
+        } catch (Exception e) {
+            ctx.executor().execute(() -> ctx.fireExceptionCaught(e));
+        }
+    }
+
+    /**
+     * Ensures that the login details are valid and loads the character file,
+     * determining the final login response code.
      * 
      * @param msg
      *            the message containing the login details.
      */
-    private void finalizeDetails(LoginDetailsMessage msg) {
+    private void validateDetails(LoginDetailsMessage msg) {
 
         // Validate the username and password, change login response if needed
         // for invalid credentials or the world being full.
@@ -161,6 +250,22 @@ public final class PlayerIO {
             }
             player.setRights(ConnectionHandler.isLocal(host) ? Rights.DEVELOPER : player.getRights());
         }
+    }
+
+    /**
+     * Completes the last part of the login protocol by sending the final login
+     * response code, and queues the player to be logged in if the response was
+     * normal. This is executed on the networking thread of this session.
+     * 
+     * @param ctx
+     *            the context of the channel the login request was received on.
+     * @param msg
+     *            the message containing the login details, may be {@code null}
+     *            if the response is not normal.
+     */
+    private void finalizeDetails(ChannelHandlerContext ctx, LoginDetailsMessage msg) {
+        if (!ctx.channel().isActive())
+            return;
 
         // Write the final response, send it off to the client.
         ByteBuf resp = Unpooled.buffer(3);
@@ -170,7 +275,7 @@ public final class PlayerIO {
 
         // If the response was invalid, close the channel right after the data
         // is sent to the client.
-        ChannelFuture future = msg.getCtx().channel().writeAndFlush(resp);
+        ChannelFuture future = ctx.channel().writeAndFlush(resp);
         if (response != LoginResponse.NORMAL) {
             future.addListener(ChannelFutureListener.CLOSE);
             return;
@@ -178,9 +283,9 @@ public final class PlayerIO {
 
         // Everything went well, so queue rearrange the pipeline for gameplay
         // and queue the player for login.
-        msg.getCtx().pipeline().addAfter("post-login-handshake", "encoder", new MessageEncoder(msg.getEncryptor()));
-        msg.getCtx().pipeline().addAfter("encoder", "decoder", new MessageDecoder(msg.getDecryptor()));
-        msg.getCtx().pipeline().remove("post-login-handshake");
+        ctx.pipeline().addAfter("post-login-handshake", "encoder", new MessageEncoder(msg.getEncryptor()));
+        ctx.pipeline().addAfter("encoder", "decoder", new MessageDecoder(msg.getDecryptor()));
+        ctx.pipeline().remove("post-login-handshake");
         World.queueLogin(player);
     }
 
@@ -196,10 +301,31 @@ public final class PlayerIO {
                 listener.handleMessage(player, msg.getOpcode(), msg.getSize(), msg.getPayload());
             } catch (Exception e) {
                 e.printStackTrace();
+            } finally {
+                msg.getPayload().release();
             }
         }
     }
 
+    /**
+     * Gets the statistics for the flushes done by every session.
+     *
+     * @return the flush statistics.
+     */
+    public static FlushStatistics getStatistics() {
+        return STATISTICS;
+    }
+
+    /**
+     * Gets the pool of workers that will complete login requests for every
+     * session.
+     * 
+     * @return the login worker pool.
+     */
+    public static LoginWorkerPool getLoginWorkers() {
+        return LOGIN_WORKERS;
+    }
+
     /**
      * Gets the channel that will manage the connection for this player.
      *
@@ -0,0 +1,165 @@
+package com.asteria.net.login;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.asteria.game.GameConstants;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * The bounded pool of threads that completes login requests away from the
+ * networking threads. Decrypting the login block and deserializing character
+ * files are far too expensive to do on a networking thread, where they would
+ * stall every other connection handled by that thread.
+ * <p>
+ * <p>
+ * Requests are rejected immediately rather than queued once the queue of
+ * pending requests is full, so that a login storm can't pile up an unbounded
+ * amount of work.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class LoginWorkerPool {
+
+    /**
+     * The queue of login requests waiting to be completed.
+     */
+    private final BlockingQueue<Runnable> queue;
+
+    /**
+     * The executor that will complete the login requests.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The amount of login requests that have been completed.
+     */
+    private final LongAdder completed = new LongAdder();
+
+    /**
+     * The amount of login requests that have been rejected.
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * The total time in nanoseconds spent completing login requests.
+     */
+    private final LongAdder elapsed = new LongAdder();
+
+    /**
+     * The largest amount of login requests that have been waiting at once.
+     */
+    private final AtomicLong peakQueued = new AtomicLong();
+
+    /**
+     * Creates a new {@link LoginWorkerPool}.
+     *
+     * @param threads
+     *            the amount of threads that will complete login requests.
+     * @param capacity
+     *            the maximum amount of login requests that can be waiting.
+     */
+    public LoginWorkerPool(int threads, int capacity) {
+        Preconditions.checkArgument(threads > 0 && capacity > 0);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.executor = new ThreadPoolExecutor(threads, threads, GameConstants.THREAD_TIMEOUT, TimeUnit.SECONDS, queue,
+            new ThreadFactoryBuilder().setNameFormat("LoginWorkerThread-%d").build());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public String toString() {
+        return "LOGINS[queued= " + getQueued() + ", peak queued= " + peakQueued.get() + ", completed= " + getCompleted() + ", rejected= "
+            + getRejected() + ", avg= " + String.format("%.2fms", getAverageMillis()) + "]";
+    }
+
+    /**
+     * Submits {@code request} to be completed by this pool.
+     *
+     * @param request
+     *            the login request to complete.
+     * @return {@code true} if the request was accepted, {@code false} if it
+     *         was rejected because too many requests are already waiting.
+     */
+    public boolean submit(Runnable request) {
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    request.run();
+                } finally {
+                    elapsed.add(System.nanoTime() - start);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+        peakQueued.accumulateAndGet(queue.size(), Math::max);
+        return true;
+    }
+
+    /**
+     * Resets all of the counters back to {@code 0}.
+     */
+    public void reset() {
+        completed.reset();
+        rejected.reset();
+        elapsed.reset();
+        peakQueued.set(0);
+    }
+
+    /**
+     * Gets the amount of login requests currently waiting to be completed.
+     *
+     * @return the amount of waiting requests.
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the largest amount of login requests that have been waiting at
+     * once.
+     *
+     * @return the peak amount of waiting requests.
+     */
+    public long getPeakQueued() {
+        return peakQueued.get();
+    }
+
+    /**
+     * Gets the amount of login requests that have been completed.
+     *
+     * @return the amount of completed requests.
+     */
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * Gets the amount of login requests that have been rejected.
+     *
+     * @return the amount of rejected requests.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the average time in milliseconds spent completing a login request.
+     *
+     * @return the average time in milliseconds.
+     */
+    public double getAverageMillis() {
+        long count = getCompleted();
+        return count == 0 ? 0 : elapsed.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -11,6 +11,7 @@ import java.util.List;
 import com.asteria.net.ISAACCipher;
 import com.asteria.net.NetworkConstants;
 import com.asteria.net.message.LoginDetailsMessage;
+import com.asteria.net.message.LoginRequestMessage;
 import com.asteria.net.message.MessageBuilder;
 
 /**
@@ -21,11 +22,17 @@ import com.asteria.net.message.MessageBuilder;
  */
 public final class PostLoginHandshakeHandler extends ByteToMessageDecoder {
 
+    /**
+     * The flag that determines if the login request has already been decoded
+     * and is waiting to be completed by a login worker.
+     */
+    private boolean requested;
+
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
 
         // Read the login type, validate it.
-        if (in.readableBytes() < 2)
+        if (requested || in.readableBytes() < 2)
             return;
 
         int type = in.readByte();
@@ -51,18 +58,36 @@ public final class PostLoginHandshakeHandler extends ByteToMessageDecoder {
         for (int i = 0; i < 9; i++)
             in.readInt();
 
-        // Either decode RSA, or proceed normally depending on the network
-        // settings.
+        // Read the login block, which will be decoded by a login worker rather
+        // than on this networking thread.
         loginEncryptPacketSize--;
         in.readByte();
+        byte[] block = new byte[loginEncryptPacketSize];
+        in.readBytes(block);
+        requested = true;
+        out.add(new LoginRequestMessage(ctx, block));
+    }
+
+    /**
+     * Decodes the login block of {@code msg}, decrypting it with RSA first if
+     * needed. This is expensive, and should be done by a login worker rather
+     * than on a networking thread.
+     *
+     * @param msg
+     *            the login request containing the block to decode.
+     * @return the decoded login details.
+     * @throws Exception
+     *             if the login block is invalid.
+     */
+    public static LoginDetailsMessage decodeBlock(LoginRequestMessage msg) throws Exception {
+        ChannelHandlerContext ctx = msg.getCtx();
+        ByteBuf in = Unpooled.wrappedBuffer(msg.getBlock());
         String username = null;
         String password = null;
         ISAACCipher encryptor = null;
         ISAACCipher decryptor = null;
         if (NetworkConstants.DECODE_RSA) {
-            byte[] encryptionBytes = new byte[loginEncryptPacketSize];
-            in.readBytes(encryptionBytes);
-            ByteBuf rsaBuffer = Unpooled.wrappedBuffer(new BigInteger(encryptionBytes).modPow(NetworkConstants.RSA_EXPONENT,
+            ByteBuf rsaBuffer = Unpooled.wrappedBuffer(new BigInteger(msg.getBlock()).modPow(NetworkConstants.RSA_EXPONENT,
                 NetworkConstants.RSA_MODULUS).toByteArray());
             int rsaOpcode = rsaBuffer.readByte();
             if (rsaOpcode != 10)
@@ -94,8 +119,7 @@ public final class PostLoginHandshakeHandler extends ByteToMessageDecoder {
         }
 
         // Finally, we've decoded all the data we need for the final response of
-        // the login protocol. Here we send it as an upstream Netty message to
-        // be handled in the PlayerIO class.
-        out.add(new LoginDetailsMessage(ctx, username, password, encryptor, decryptor));
+        // the login protocol.
+        return new LoginDetailsMessage(ctx, username, password, encryptor, decryptor);
     }
 }
@@ -0,0 +1,54 @@
+package com.asteria.net.message;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * The {@link Message} implementation that contains the still encoded login
+ * block sent by the client, waiting to be decoded and completed by a login
+ * worker.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class LoginRequestMessage implements Message {
+
+    /**
+     * The context of the channel this request was received on.
+     */
+    private final ChannelHandlerContext ctx;
+
+    /**
+     * The login block, which may or may not be encrypted with RSA.
+     */
+    private final byte[] block;
+
+    /**
+     * Creates a new {@link LoginRequestMessage}.
+     *
+     * @param ctx
+     *            the context of the channel this request was received on.
+     * @param block
+     *            the login block, which may or may not be encrypted with RSA.
+     */
+    public LoginRequestMessage(ChannelHandlerContext ctx, byte[] block) {
+        this.ctx = ctx;
+        this.block = block;
+    }
+
+    /**
+     * Gets the context of the channel this request was received on.
+     *
+     * @return the channel context.
+     */
+    public ChannelHandlerContext getCtx() {
+        return ctx;
+    }
+
+    /**
+     * Gets the login block, which may or may not be encrypted with RSA.
+     *
+     * @return the login block.
+     */
+    public byte[] getBlock() {
+        return block;
+    }
+}
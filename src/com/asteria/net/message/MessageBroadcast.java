@@ -0,0 +1,136 @@
+package com.asteria.net.message;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.asteria.game.World;
+import com.asteria.game.character.player.Player;
+import com.asteria.game.location.Position;
+import com.asteria.net.ValueType;
+
+/**
+ * The utility class that broadcasts messages about a position to the players
+ * that can see it. Only the players in the regions surrounding the position
+ * are inspected, and the message is encoded once for every broadcast rather
+ * than once for every player it's sent to.
+ * <p>
+ * <p>
+ * Every player still receives their own copy of the encoded bytes, because
+ * the opcode of every message is encrypted separately for each player when it
+ * is written.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class MessageBroadcast {
+
+    /**
+     * The default constructor.
+     *
+     * @throws UnsupportedOperationException
+     *             if this class is instantiated.
+     */
+    private MessageBroadcast() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Sends the message written by {@code encoder} to every player within
+     * {@code distance} tiles of {@code position} whose loaded map area contains
+     * it, preceded by the coordinates of {@code position} within that map
+     * area. The coordinates are encoded once for every distinct map area
+     * amongst those players.
+     *
+     * @param position
+     *            the position the message is about.
+     * @param distance
+     *            the distance players must be within to receive the message.
+     * @param encoder
+     *            the function that writes the message.
+     */
+    public static void sendPositioned(Position position, int distance, Consumer<MessageBuilder> encoder) {
+        MessageBuilder message = encode(encoder);
+        Map<Integer, MessageBuilder> coordinates = new HashMap<>();
+        try {
+            World.forEachViewer(position, distance, p -> {
+                Position region = p.getCurrentRegion();
+                MessageBuilder msg = coordinates.computeIfAbsent((region.getRegionX() << 16) | (region.getRegionY() & 0xffff),
+                    k -> encodeCoordinates(position, region));
+                queue(p, msg);
+                queue(p, message);
+            });
+        } finally {
+            message.release();
+            coordinates.values().forEach(MessageBuilder::release);
+        }
+    }
+
+    /**
+     * Sends the message written by {@code encoder} to every player within
+     * {@code distance} tiles of {@code position} whose loaded map area contains
+     * it.
+     *
+     * @param position
+     *            the position the message is about.
+     * @param distance
+     *            the distance players must be within to receive the message.
+     * @param encoder
+     *            the function that writes the message.
+     */
+    public static void send(Position position, int distance, Consumer<MessageBuilder> encoder) {
+        MessageBuilder message = encode(encoder);
+        try {
+            World.forEachViewer(position, distance, p -> queue(p, message));
+        } finally {
+            message.release();
+        }
+    }
+
+    /**
+     * Encodes a message with {@code encoder} into a new scratch buffer.
+     *
+     * @param encoder
+     *            the function that writes the message.
+     * @return the buffer containing the message.
+     */
+    private static MessageBuilder encode(Consumer<MessageBuilder> encoder) {
+        MessageBuilder msg = MessageBuilder.create();
+        try {
+            encoder.accept(msg);
+        } catch (RuntimeException e) {
+            msg.release();
+            throw e;
+        }
+        return msg;
+    }
+
+    /**
+     * Encodes the message that sets the coordinates of the next message to
+     * {@code position} within the map area loaded around {@code region}.
+     *
+     * @param position
+     *            the position to encode.
+     * @param region
+     *            the position the map area was loaded for.
+     * @return the buffer containing the message.
+     */
+    private static MessageBuilder encodeCoordinates(Position position, Position region) {
+        MessageBuilder msg = MessageBuilder.create(3);
+        msg.newMessage(85);
+        msg.put(position.getY() - (region.getRegionY() * 8), ValueType.C);
+        msg.put(position.getX() - (region.getRegionX() * 8), ValueType.C);
+        return msg;
+    }
+
+    /**
+     * Queues a copy of the encoded message {@code msg} for {@code player}.
+     *
+     * @param player
+     *            the player to queue the message for.
+     * @param msg
+     *            the encoded message.
+     */
+    private static void queue(Player player, MessageBuilder msg) {
+        player.getSession().queue(MessageBuilder.create(msg.buffer().writerIndex()).putBytes(msg.buffer()));
+    }
+}
@@ -1,19 +1,34 @@
 package com.asteria.net.message;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.ReferenceCounted;
 
 import com.asteria.net.ByteOrder;
+import com.asteria.net.PlayerIO;
 import com.asteria.net.ValueType;
 
 /**
  * The {@link Message} implementation that functions as a dynamic buffer wrapper
  * backed by a {@link ByteBuf} that is used for reading and writing data.
+ * <p>
+ * <p>
+ * Buffers created through {@code create(int)} are allocated from a pool and
+ * are reference counted. Builders handed to {@link PlayerIO#queue} are
+ * released automatically once they've been encoded or dropped, while builders
+ * that are only used as scratch space must be released with
+ * {@code release()} when they are no longer needed.
  *
  * @author lare96 <http://github.com/lare96>
  * @author blakeman8192
  */
-public final class MessageBuilder implements Message {
+public final class MessageBuilder implements Message, ReferenceCounted {
+
+    /**
+     * The allocator that buffers will be allocated from.
+     */
+    private static final ByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
 
     /**
      * An array of the bit masks used for writing bits.
@@ -30,7 +45,7 @@ public final class MessageBuilder implements Message {
     /**
      * The backing byte buffer used to read and write data.
      */
-    private ByteBuf buf;
+    private final ByteBuf buf;
 
     /**
      * The position of the buffer when a variable length message is created.
@@ -72,7 +87,7 @@ public final class MessageBuilder implements Message {
      * @return the newly created buffer.
      */
     public static MessageBuilder create(int cap) {
-        return MessageBuilder.create(Unpooled.buffer(cap));
+        return MessageBuilder.create(ALLOCATOR.buffer(cap));
     }
 
     /**
@@ -177,9 +192,7 @@ public final class MessageBuilder implements Message {
      * @return an instance of this message builder.
      */
     public MessageBuilder putBytes(ByteBuf from) {
-        for (int i = 0; i < from.writerIndex(); i++) {
-            put(from.getByte(i));
-        }
+        buf.writeBytes(from, 0, from.writerIndex());
         return this;
     }
 
@@ -228,25 +241,21 @@ public final class MessageBuilder implements Message {
         bitIndex = bitIndex + amount;
         int requiredSpace = bytePos - buf.writerIndex() + 1;
         requiredSpace += (amount + 7) / 8;
-        if (buf.writableBytes() < requiredSpace) {
-            ByteBuf old = buf;
-            buf = Unpooled.buffer(old.capacity() + requiredSpace);
-            buf.writeBytes(old);
-        }
+        buf.ensureWritable(requiredSpace);
         for (; amount > bitOffset; bitOffset = 8) {
-            byte tmp = buf.getByte(bytePos);
+            byte tmp = bitOffset == 8 ? 0 : buf.getByte(bytePos);
             tmp &= ~BIT_MASK[bitOffset];
             tmp |= (value >> (amount - bitOffset)) & BIT_MASK[bitOffset];
             buf.setByte(bytePos++, tmp);
             amount -= bitOffset;
         }
         if (amount == bitOffset) {
-            byte tmp = buf.getByte(bytePos);
+            byte tmp = bitOffset == 8 ? 0 : buf.getByte(bytePos);
             tmp &= ~BIT_MASK[bitOffset];
             tmp |= value & BIT_MASK[bitOffset];
             buf.setByte(bytePos, tmp);
         } else {
-            byte tmp = buf.getByte(bytePos);
+            byte tmp = bitOffset == 8 ? 0 : buf.getByte(bytePos);
             tmp &= ~(BIT_MASK[amount] << (bitOffset - amount));
             tmp |= (value & BIT_MASK[amount]) << (bitOffset - amount);
             buf.setByte(bytePos, tmp);
@@ -999,6 +1008,33 @@ public final class MessageBuilder implements Message {
         return data;
     }
 
+    @Override
+    public int refCnt() {
+        return buf.refCnt();
+    }
+
+    @Override
+    public MessageBuilder retain() {
+        buf.retain();
+        return this;
+    }
+
+    @Override
+    public MessageBuilder retain(int increment) {
+        buf.retain(increment);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buf.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buf.release(decrement);
+    }
+
     /**
      * Gets the backing byte buffer used to read and write data.
      *
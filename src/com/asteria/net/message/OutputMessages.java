@@ -1,9 +1,7 @@
 package com.asteria.net.message;
 
-import java.util.Objects;
-
+import com.asteria.game.GameConstants;
 import com.asteria.game.NodeType;
-import com.asteria.game.World;
 import com.asteria.game.character.CharacterNode;
 import com.asteria.game.character.player.Player;
 import com.asteria.game.item.Item;
@@ -125,10 +123,7 @@ public final class OutputMessages {
     public OutputMessages sendObjectAnimation(Position position, int animation, ObjectType type, ObjectDirection direction) {
         sendCoordinates(position);
         MessageBuilder msg = MessageBuilder.create();
-        msg.newMessage(160);
-        msg.put(((0 & 7) << 4) + (0 & 7), ValueType.S);
-        msg.put((type.getId() << 2) + (direction.getId() & 3), ValueType.S);
-        msg.putShort(animation, ValueType.A);
+        encodeObjectAnimation(msg, animation, type, direction);
         player.getSession().queue(msg);
         return this;
     }
@@ -148,12 +143,31 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendLocalObjectAnimation(Position position, int animation, ObjectType type, ObjectDirection direction) {
-        player.getMessages().sendObjectAnimation(position, animation, type, direction);
-        player.getLocalPlayers().stream().filter(Objects::nonNull).forEach(
-            p -> p.getMessages().sendObjectAnimation(position, animation, type, direction));
+        MessageBroadcast.sendPositioned(position, GameConstants.VIEWING_DISTANCE, msg -> encodeObjectAnimation(msg, animation, type,
+            direction));
         return this;
     }
 
+    /**
+     * Writes the message that plays an animation for an object to
+     * {@code msg}.
+     *
+     * @param msg
+     *            the buffer to write the message to.
+     * @param animation
+     *            the animation to play for this object.
+     * @param type
+     *            the object type of the object.
+     * @param direction
+     *            the direction this object is facing.
+     */
+    private static void encodeObjectAnimation(MessageBuilder msg, int animation, ObjectType type, ObjectDirection direction) {
+        msg.newMessage(160);
+        msg.put(((0 & 7) << 4) + (0 & 7), ValueType.S);
+        msg.put((type.getId() << 2) + (direction.getId() & 3), ValueType.S);
+        msg.putShort(animation, ValueType.A);
+    }
+
     /**
      * The message that creates a graphic that only the underlying player can
      * see.
@@ -169,11 +183,7 @@ public final class OutputMessages {
     public OutputMessages sendGraphic(int id, Position position, int level) {
         sendCoordinates(position);
         MessageBuilder msg = MessageBuilder.create();
-        msg.newMessage(4);
-        msg.put(0);
-        msg.putShort(id);
-        msg.put(level);
-        msg.putShort(0);
+        encodeGraphic(msg, id, level);
         player.getSession().queue(msg);
         return this;
     }
@@ -190,13 +200,13 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendLocalGraphic(int id, Position position, int level) {
-        player.getMessages().sendGraphic(id, position, level);
-        player.getLocalPlayers().stream().filter(Objects::nonNull).forEach(p -> p.getMessages().sendGraphic(id, position, level));
+        MessageBroadcast.sendPositioned(position, GameConstants.VIEWING_DISTANCE, msg -> encodeGraphic(msg, id, level));
         return this;
     }
 
     /**
-     * The message that creates a graphic that all players can see.
+     * The message that creates a graphic that all players who have loaded
+     * {@code position} can see.
      *
      * @param id
      *            the id of the graphic that will be created.
@@ -207,7 +217,25 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public static void sendAllGraphic(int id, Position position, int level) {
-        World.getPlayers().forEach(p -> p.getMessages().sendGraphic(id, position, level));
+        MessageBroadcast.sendPositioned(position, GameConstants.MAP_VIEWING_DISTANCE, msg -> encodeGraphic(msg, id, level));
+    }
+
+    /**
+     * Writes the message that creates a graphic to {@code msg}.
+     *
+     * @param msg
+     *            the buffer to write the message to.
+     * @param id
+     *            the id of the graphic that will be created.
+     * @param level
+     *            the height of the graphic that will be created.
+     */
+    private static void encodeGraphic(MessageBuilder msg, int id, int level) {
+        msg.newMessage(4);
+        msg.put(0);
+        msg.putShort(id);
+        msg.put(level);
+        msg.putShort(0);
     }
 
     /**
@@ -223,10 +251,7 @@ public final class OutputMessages {
      */
     public OutputMessages sendSound(int id, int type, int delay) {
         MessageBuilder msg = MessageBuilder.create();
-        msg.newMessage(174);
-        msg.putShort(id);
-        msg.put(type);
-        msg.putShort(delay);
+        encodeSound(msg, id, type, delay);
         player.getSession().queue(msg);
         return this;
     }
@@ -243,11 +268,29 @@ public final class OutputMessages {
      * @return an instance of this encoder.
      */
     public OutputMessages sendLocalSound(int id, int type, int delay) {
-        player.getMessages().sendSound(id, type, delay);
-        player.getLocalPlayers().stream().filter(Objects::nonNull).forEach(p -> p.getMessages().sendSound(id, type, delay));
+        MessageBroadcast.send(player.getPosition(), GameConstants.VIEWING_DISTANCE, msg -> encodeSound(msg, id, type, delay));
         return this;
     }
 
+    /**
+     * Writes the message that plays a sound to {@code msg}.
+     *
+     * @param msg
+     *            the buffer to write the message to.
+     * @param id
+     *            the id of the sound that will be played.
+     * @param type
+     *            the type of sound that will be played.
+     * @param delay
+     *            the delay before the sound will be played.
+     */
+    private static void encodeSound(MessageBuilder msg, int id, int type, int delay) {
+        msg.newMessage(174);
+        msg.putShort(id);
+        msg.put(type);
+        msg.putShort(delay);
+    }
+
     /**
      * The message that allows for an interface to be animated.
      *
@@ -767,25 +810,14 @@ public final class OutputMessages {
     public OutputMessages sendProjectile(Position position, Position offset, int angle, int speed, int gfxMoving, int startHeight, int endHeight, int lockon, int time) {
         sendCoordinates(position);
         MessageBuilder msg = MessageBuilder.create();
-        msg.newMessage(117);
-        msg.put(angle);
-        msg.put(offset.getY());
-        msg.put(offset.getX());
-        msg.putShort(lockon);
-        msg.putShort(gfxMoving);
-        msg.put(startHeight);
-        msg.put(endHeight);
-        msg.putShort(time);
-        msg.putShort(speed);
-        msg.put(16);
-        msg.put(64);
+        encodeProjectile(msg, offset, angle, speed, gfxMoving, startHeight, endHeight, lockon, time);
         player.getSession().queue(msg);
         return this;
     }
 
     /**
-     * The message that launches a projectile that all of the local players can
-     * see.
+     * The message that launches a projectile that all of the players within
+     * viewing distance of {@code position} can see.
      *
      * @param position
      *            the position of the projectile.
@@ -806,11 +838,49 @@ public final class OutputMessages {
      * @param time
      *            the time it takes for this projectile to hit its desired
      *            position.
-     * @return an instance of this encoder.
      */
-    public void sendAllProjectile(Position position, Position offset, int angle, int speed, int gfxMoving, int startHeight, int endHeight, int lockon, int time) {
-        player.getLocalPlayers().stream().filter(Objects::nonNull).forEach(
-            p -> p.getMessages().sendProjectile(position, offset, angle, speed, gfxMoving, startHeight, endHeight, lockon, time));
+    public static void sendAllProjectile(Position position, Position offset, int angle, int speed, int gfxMoving, int startHeight, int endHeight, int lockon, int time) {
+        MessageBroadcast.sendPositioned(position, GameConstants.VIEWING_DISTANCE, msg -> encodeProjectile(msg, offset, angle, speed,
+            gfxMoving, startHeight, endHeight, lockon, time));
+    }
+
+    /**
+     * Writes the message that launches a projectile to {@code msg}.
+     *
+     * @param msg
+     *            the buffer to write the message to.
+     * @param offset
+     *            the offset position of the projectile.
+     * @param angle
+     *            the angle of the projectile.
+     * @param speed
+     *            the speed of the projectile.
+     * @param gfxMoving
+     *            the rate that projectile gfx moves in.
+     * @param startHeight
+     *            the starting height of the projectile.
+     * @param endHeight
+     *            the ending height of the projectile.
+     * @param lockon
+     *            the lockon value of this projectile.
+     * @param time
+     *            the time it takes for this projectile to hit its desired
+     *            position.
+     */
+    private static void encodeProjectile(MessageBuilder msg, Position offset, int angle, int speed, int gfxMoving, int startHeight,
+        int endHeight, int lockon, int time) {
+        msg.newMessage(117);
+        msg.put(angle);
+        msg.put(offset.getY());
+        msg.put(offset.getX());
+        msg.putShort(lockon);
+        msg.putShort(gfxMoving);
+        msg.put(startHeight);
+        msg.put(endHeight);
+        msg.putShort(time);
+        msg.putShort(speed);
+        msg.put(16);
+        msg.put(64);
     }
 
     /**
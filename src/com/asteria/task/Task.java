@@ -1,6 +1,7 @@
 package com.asteria.task;
 
 import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.base.Preconditions;
 
@@ -32,15 +33,10 @@ public abstract class Task {
     private int delay;
 
     /**
-     * The pause delay for this task.
+     * The pause delay for this task, used until this task is submitted.
      */
     private int pauseDelay;
 
-    /**
-     * The counter used for determining when this task executes.
-     */
-    private int counter;
-
     /**
      * Determines if this task executes when submitted.
      */
@@ -56,6 +52,38 @@ public abstract class Task {
      */
     private boolean running;
 
+    /**
+     * The task queue this task was submitted to, or {@code null} if it hasn't
+     * been submitted yet.
+     */
+    TaskQueue queue;
+
+    /**
+     * The order in which this task was submitted, relative to other tasks.
+     */
+    long sequence;
+
+    /**
+     * The tick that the delay of this task is counted from.
+     */
+    long base;
+
+    /**
+     * The tick on which the current pause of this task ends.
+     */
+    long pauseEnd;
+
+    /**
+     * The tick on which this task is due to be executed.
+     */
+    long deadline;
+
+    /**
+     * The timing wheel slot this task is currently placed on, or {@code null}
+     * if it's not placed on one.
+     */
+    Set<Task> slot;
+
     /**
      * Creates a new {@link Task}.
      *
@@ -111,25 +139,6 @@ public abstract class Task {
 
     }
 
-    /**
-     * Determines if this task needs to be executed.
-     *
-     * @return {@code true} if this task needs to be executed, {@code false}
-     *         otherwise.
-     */
-    public final boolean needsExecute() {
-        if (pauseDelay > 0) {
-            pauseDelay--;
-            if (pauseDelay != 0)
-                return false;
-        }
-        if (++counter >= delay && running) {
-            counter = 0;
-            return true;
-        }
-        return false;
-    }
-
     /**
      * Cancels this task and executes the {@code onCancel()} method only if this
      * task is running.
@@ -137,6 +146,8 @@ public abstract class Task {
     public final void cancel() {
         if (running) {
             running = false;
+            if (queue != null)
+                queue.unschedule(this);
             onCancel();
         }
     }
@@ -149,9 +160,22 @@ public abstract class Task {
      *            the duration to pause this task for.
      */
     public final void pause(int duration) {
-        if (pauseDelay > 0)
+        if (isPaused())
             throw new IllegalStateException("This task is already paused!");
-        this.pauseDelay = duration;
+        if (queue == null) {
+            this.pauseDelay = duration;
+            return;
+        }
+        queue.pause(this, duration);
+    }
+
+    /**
+     * Determines if this task is currently paused.
+     *
+     * @return {@code true} if this task is paused, {@code false} otherwise.
+     */
+    public final boolean isPaused() {
+        return queue == null ? pauseDelay > 0 : queue.getTick() < pauseEnd;
     }
 
     /**
@@ -163,14 +187,18 @@ public abstract class Task {
      * <p>
      * <p>
      * Keys with a value of {@code null} are <b>not</b> permitted, the default
-     * value for all keys is {@code DEFAULT_KEY}.
+     * value for all keys is {@code DEFAULT_KEY}. Keys are compared by
+     * identity.
      *
      * @param key
      *            the key to bind to this task, cannot be {@code null}.
      * @return an instance of this task.
      */
     public final Task attach(Object key) {
+        Object oldKey = this.key;
         this.key = Objects.requireNonNull(key);
+        if (queue != null)
+            queue.rekey(this, oldKey);
         return this;
     }
 
@@ -183,6 +211,26 @@ public abstract class Task {
     public final void newDelay(int delay) {
         Preconditions.checkArgument(delay >= 0);
         this.delay = delay;
+        if (queue != null)
+            queue.reschedule(this);
+    }
+
+    /**
+     * Gets the delay for this task.
+     *
+     * @return the delay.
+     */
+    public final int getDelay() {
+        return delay;
+    }
+
+    /**
+     * Gets the pause delay for this task, used until this task is submitted.
+     *
+     * @return the pause delay.
+     */
+    final int getPauseDelay() {
+        return pauseDelay;
     }
 
     /**
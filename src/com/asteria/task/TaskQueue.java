@@ -1,10 +1,13 @@
 package com.asteria.task;
 
-import java.util.ArrayDeque;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Queue;
+import java.util.Map;
+import java.util.Set;
 
 import com.google.common.base.Preconditions;
 
@@ -13,6 +16,12 @@ import com.google.common.base.Preconditions;
  * makes sure tasks are stopped when requested and executed at the correct time.
  * <p>
  * <p>
+ * Pending tasks are held on a {@link TimingWheel} by the tick they're due on,
+ * so every sequence only touches the tasks that are due that tick rather than
+ * every single pending task. Tasks are also indexed by their attachment key so
+ * they can be cancelled without searching through every pending task.
+ * <p>
+ * <p>
  * The data structures that hold tasks for processing are not thread safe, which
  * means tasks should only be submitted on the main game thread.
  *
@@ -21,14 +30,45 @@ import com.google.common.base.Preconditions;
 public final class TaskQueue {
 
     /**
-     * The list that holds all of the pending tasks that are awaiting execution.
+     * The cache of task types to whether or not they override
+     * {@link Task#onSequence()}, and thus need to be sequenced every tick.
+     */
+    private static final ClassValue<Boolean> SEQUENCED = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("onSequence").getDeclaringClass() != Task.class;
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    /**
+     * The timing wheel that holds all of the pending tasks that are awaiting
+     * execution.
+     */
+    private final TimingWheel wheel = new TimingWheel();
+
+    /**
+     * The map of attachment keys to the pending tasks bound with them.
+     */
+    private final Map<Object, Set<Task>> keys = new IdentityHashMap<>();
+
+    /**
+     * The pending tasks that need {@link Task#onSequence()} invoked every tick.
      */
-    private final List<Task> pendingTasks = new LinkedList<>();
+    private final Set<Task> sequenced = new LinkedHashSet<>();
 
     /**
-     * The queue that holds all of the tasks that are ready to be executed.
+     * The list that holds all of the tasks that are ready to be executed.
      */
-    private final Queue<Task> runTasks = new ArrayDeque<>(50);
+    private final List<Task> runTasks = new ArrayList<>(50);
+
+    /**
+     * The amount of tasks that have been submitted to this task handler.
+     */
+    private long submitted;
 
     /**
      * Queues pending tasks that are ready to be executed and executes tasks
@@ -38,25 +78,32 @@ public final class TaskQueue {
      *             if any errors occur while processing the tasks.
      */
     public void sequence() throws Exception {
-        Iterator<Task> $it = pendingTasks.iterator();
-        while ($it.hasNext()) {
-            Task t = $it.next();
-            t.onSequence();
-            if (t.needsExecute()) {
-                runTasks.add(t);
-            } else if (!t.isRunning()) {
-                $it.remove();
-            }
+        if (!sequenced.isEmpty()) {
+            for (Task t : sequenced.toArray(new Task[sequenced.size()]))
+                t.onSequence();
         }
 
-        Task t;
-        while ((t = runTasks.poll()) != null) {
-            try {
-                t.execute();
-            } catch (Throwable ex) {
-                ex.printStackTrace();
-                t.onThrowable(ex);
+        long tick = wheel.advance(runTasks);
+        if (runTasks.size() > 1)
+            Collections.sort(runTasks, Comparator.comparingLong(t -> t.sequence));
+        for (Task t : runTasks)
+            t.base = tick;
+
+        try {
+            for (Task t : runTasks) {
+                try {
+                    t.execute();
+                } catch (Throwable ex) {
+                    ex.printStackTrace();
+                    t.onThrowable(ex);
+                }
+            }
+        } finally {
+            for (Task t : runTasks) {
+                if (t.isRunning() && t.slot == null)
+                    schedule(t);
             }
+            runTasks.clear();
         }
     }
 
@@ -69,11 +116,22 @@ public final class TaskQueue {
      */
     public void submit(Task task) {
         Preconditions.checkArgument(task.isRunning());
+        Preconditions.checkArgument(task.queue == null, "This task has already been submitted!");
         task.onSubmit();
         if (task.isInstant())
             task.execute();
-        if (task.isRunning())
-            pendingTasks.add(task);
+        if (task.isRunning()) {
+            long tick = wheel.getTick();
+            int pauseDelay = task.getPauseDelay();
+            task.queue = this;
+            task.sequence = submitted++;
+            task.base = tick + Math.max(0, pauseDelay - 1);
+            task.pauseEnd = tick + pauseDelay;
+            keys.computeIfAbsent(task.getKey(), k -> new LinkedHashSet<>()).add(task);
+            if (SEQUENCED.get(task.getClass()))
+                sequenced.add(task);
+            schedule(task);
+        }
     }
 
     /**
@@ -83,6 +141,116 @@ public final class TaskQueue {
      *            the key to cancel all tasks with.
      */
     public void cancel(Object key) {
-        pendingTasks.stream().filter(t -> t.getKey().equals(key)).forEach(t -> t.cancel());
+        Set<Task> tasks = keys.get(key);
+        if (tasks == null)
+            return;
+        for (Task t : tasks.toArray(new Task[tasks.size()]))
+            t.cancel();
+    }
+
+    /**
+     * Gets the tick this task handler was last sequenced on.
+     *
+     * @return the current tick.
+     */
+    public long getTick() {
+        return wheel.getTick();
+    }
+
+    /**
+     * Determines the tick {@code task} is due to be executed on, based on its
+     * delay and pause.
+     *
+     * @param task
+     *            the task to determine the due tick of.
+     * @return the due tick.
+     */
+    private long deadline(Task task) {
+        long deadline = Math.max(task.base + Math.max(task.getDelay(), 1), task.pauseEnd);
+        return Math.max(deadline, wheel.getTick() + 1);
+    }
+
+    /**
+     * Places {@code task} on the timing wheel on the tick it's due.
+     *
+     * @param task
+     *            the task to place on the timing wheel.
+     */
+    private void schedule(Task task) {
+        task.deadline = deadline(task);
+        wheel.schedule(task);
+    }
+
+    /**
+     * Moves {@code task} to the tick it's now due, if it's currently pending.
+     * This is invoked when the delay or pause of a task changes.
+     *
+     * @param task
+     *            the task to reschedule.
+     */
+    void reschedule(Task task) {
+        if (task.slot == null)
+            return;
+        wheel.unschedule(task);
+        schedule(task);
+    }
+
+    /**
+     * Pauses {@code task} for {@code duration} ticks. The delay of the task is
+     * not counted during the pause, with the exception of the tick the pause
+     * ends on.
+     *
+     * @param task
+     *            the task to pause.
+     * @param duration
+     *            the duration to pause the task for.
+     */
+    void pause(Task task, int duration) {
+        task.pauseEnd = wheel.getTick() + duration;
+        task.base += Math.max(0, duration - 1);
+        reschedule(task);
+    }
+
+    /**
+     * Moves {@code task} from the key index of {@code oldKey} to the index of
+     * its current key.
+     *
+     * @param task
+     *            the task that had its key changed.
+     * @param oldKey
+     *            the previous key of the task.
+     */
+    void rekey(Task task, Object oldKey) {
+        if (!task.isRunning())
+            return;
+        removeKey(task, oldKey);
+        keys.computeIfAbsent(task.getKey(), k -> new LinkedHashSet<>()).add(task);
+    }
+
+    /**
+     * Removes {@code task} from this task handler entirely. This is invoked
+     * when a task is cancelled.
+     *
+     * @param task
+     *            the task to remove.
+     */
+    void unschedule(Task task) {
+        wheel.unschedule(task);
+        sequenced.remove(task);
+        removeKey(task, task.getKey());
+    }
+
+    /**
+     * Removes {@code task} from the key index of {@code key}.
+     *
+     * @param task
+     *            the task to remove.
+     * @param key
+     *            the key to remove the task from the index of.
+     */
+    private void removeKey(Task task, Object key) {
+        Set<Task> tasks = keys.get(key);
+        if (tasks != null && tasks.remove(task) && tasks.isEmpty())
+            keys.remove(key);
     }
 }
@@ -0,0 +1,157 @@
+package com.asteria.task;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A hierarchical timing wheel that holds {@link Task}s by the tick they're due
+ * to be executed on. The wheel is made up of {@link #LEVELS} levels of
+ * {@link #SLOTS} slots each, where every slot on a level spans {@code SLOTS}
+ * times as many ticks as a slot on the level below it. Tasks far in the
+ * future are placed on the upper levels and cascaded down as their due tick
+ * approaches, which means that advancing the wheel by a tick only has to
+ * touch the tasks that are due on that tick.
+ * <p>
+ * <p>
+ * Scheduling and unscheduling a task are both {@code O(1)}.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+final class TimingWheel {
+
+    /**
+     * The amount of bits used to index the slots on a single level.
+     */
+    private static final int SLOT_BITS = 6;
+
+    /**
+     * The amount of slots on a single level.
+     */
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    /**
+     * The mask used to index the slots on a single level.
+     */
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * The amount of levels in this wheel.
+     */
+    private static final int LEVELS = 4;
+
+    /**
+     * The furthest amount of ticks in the future a task can be placed on this
+     * wheel at once. Tasks due any later than this are placed as far as
+     * possible and moved again once they're cascaded.
+     */
+    private static final long SPAN = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * The slots of every level of this wheel.
+     */
+    private final Set<Task>[][] wheel = createWheel();
+
+    /**
+     * The tick this wheel was last advanced to.
+     */
+    private long tick;
+
+    /**
+     * Places {@code task} on the slot for {@link Task#deadline}, which must be
+     * after the current tick.
+     *
+     * @param task
+     *            the task to place on this wheel.
+     */
+    public void schedule(Task task) {
+        long delta = Math.min(task.deadline - tick, SPAN);
+        long deadline = tick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1))))
+            level++;
+        Set<Task> slot = wheel[level][(int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        slot.add(task);
+        task.slot = slot;
+    }
+
+    /**
+     * Removes {@code task} from the slot it's currently placed on, if any.
+     *
+     * @param task
+     *            the task to remove from this wheel.
+     */
+    public void unschedule(Task task) {
+        if (task.slot != null) {
+            task.slot.remove(task);
+            task.slot = null;
+        }
+    }
+
+    /**
+     * Advances this wheel by a single tick, cascading tasks down from the
+     * upper levels where needed and removing every task due on the new tick.
+     *
+     * @param due
+     *            the list that tasks due on the new tick will be added to.
+     * @return the new tick.
+     */
+    public long advance(List<Task> due) {
+        tick++;
+        int level = 0;
+        while (level < LEVELS - 1 && ((tick >>> (SLOT_BITS * level)) & SLOT_MASK) == 0)
+            level++;
+        for (; level > 0; level--)
+            cascade(wheel[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)]);
+        Set<Task> slot = wheel[0][(int) (tick & SLOT_MASK)];
+        for (Task task : slot) {
+            task.slot = null;
+            due.add(task);
+        }
+        slot.clear();
+        return tick;
+    }
+
+    /**
+     * Places every task on {@code slot} onto the slots they belong on now that
+     * their due tick is closer.
+     *
+     * @param slot
+     *            the slot to cascade.
+     */
+    private void cascade(Set<Task> slot) {
+        if (slot.isEmpty())
+            return;
+        Task[] tasks = slot.toArray(new Task[slot.size()]);
+        slot.clear();
+        for (Task task : tasks) {
+            task.slot = null;
+            schedule(task);
+        }
+    }
+
+    /**
+     * Gets the tick this wheel was last advanced to.
+     *
+     * @return the current tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Creates the slots of every level of a wheel.
+     *
+     * @return the created slots.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Set<Task>[][] createWheel() {
+        Set<Task>[][] wheel = new Set[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int index = 0; index < SLOTS; index++)
+                wheel[level][index] = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+        return wheel;
+    }
+}
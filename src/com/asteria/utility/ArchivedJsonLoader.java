@@ -0,0 +1,272 @@
+package com.asteria.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * The {@link JsonLoader} that compiles the parsed data into a compact binary
+ * archive, saved next to the {@code .json} file with the {@code .dat}
+ * extension. On startup the archive is memory-mapped and the data is
+ * materialized straight from it, which is far cheaper than parsing the
+ * {@code .json} file.
+ * <p>
+ * <p>
+ * The archive records the checksum of the {@code .json} file it was compiled
+ * from. If the archive is missing, corrupt, or was compiled from a different
+ * {@code .json} file, the {@code .json} file is parsed instead and the archive
+ * is compiled again afterwards.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public abstract class ArchivedJsonLoader extends JsonLoader {
+
+    /**
+     * The magic number that every archive starts with.
+     */
+    private static final int MAGIC = 0x41534441;
+
+    /**
+     * The version of the archive format, this should be incremented whenever
+     * the layout of the archive changes.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the header of every archive, in bytes.
+     */
+    private static final int HEADER_SIZE = 28;
+
+    /**
+     * The extension of archives.
+     */
+    private static final String EXTENSION = ".dat";
+
+    /**
+     * The logger that will print important information.
+     */
+    private static final Logger logger = LoggerUtils.getLogger(ArchivedJsonLoader.class);
+
+    /**
+     * The path to the {@code .json} file being parsed.
+     */
+    private final Path source;
+
+    /**
+     * The path to the archive compiled from the {@code .json} file.
+     */
+    private final Path archive;
+
+    /**
+     * The checksum of the {@code .json} file that the loaded data came from,
+     * or {@code -1} if no data has been loaded by this loader yet.
+     */
+    private long checksum = -1;
+
+    /**
+     * Creates a new {@link ArchivedJsonLoader}.
+     *
+     * @param path
+     *            the path to the {@code .json} file being parsed.
+     */
+    public ArchivedJsonLoader(String path) {
+        super(path);
+        this.source = Paths.get(path);
+        this.archive = Paths.get(path.substring(0, path.lastIndexOf('.')) + EXTENSION);
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            if (read()) {
+                logger.info("Loaded " + archive + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms.");
+                return;
+            }
+            logger.info(archive + " is missing or stale, parsing " + source + " instead.");
+        } catch (Exception e) {
+            logger.log(Level.WARNING, archive + " could not be read, parsing " + source + " instead.", e);
+        }
+        try {
+            parseSource();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, source + " could not be parsed.", e);
+            return;
+        }
+        try {
+            pack();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, archive + " could not be written.", e);
+        }
+    }
+
+    /**
+     * Writes every loaded value to {@code out}, in a layout that
+     * {@link #decode(ByteBuffer)} can read back.
+     *
+     * @param out
+     *            the stream to write the loaded values to.
+     * @throws IOException
+     *             if any I/O errors occur while writing.
+     */
+    protected abstract void encode(DataOutputStream out) throws IOException;
+
+    /**
+     * Reads back every value written by {@link #encode(DataOutputStream)}
+     * from {@code buf}, loading them as if they were parsed from the
+     * {@code .json} file.
+     *
+     * @param buf
+     *            the buffer to read the values from.
+     */
+    protected abstract void decode(ByteBuffer buf);
+
+    /**
+     * Parses the {@code .json} file, recording the checksum it had when it
+     * was parsed so that the archive compiled from the parsed values is
+     * stamped with the checksum of the file they actually came from.
+     *
+     * @throws IOException
+     *             if any I/O errors occur while parsing.
+     */
+    public final void parseSource() throws IOException {
+        long checksum = checksum(source);
+        parse();
+        this.checksum = checksum;
+    }
+
+    /**
+     * Compiles the values loaded by this loader into the archive, replacing
+     * the existing archive if there is one. This is done automatically
+     * whenever the {@code .json} file has to be parsed.
+     *
+     * @throws IOException
+     *             if any I/O errors occur while compiling the archive.
+     * @throws IllegalStateException
+     *             if no values have been loaded by this loader.
+     */
+    public final void pack() throws IOException {
+        Preconditions.checkState(checksum != -1, "No data has been loaded by this loader!");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            encode(out);
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(checksum).putInt(payload.length).putLong(crc.getValue()).flip();
+        Path temporary = archive.resolveSibling(archive.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = { header, ByteBuffer.wrap(payload) };
+            while (buffers[1].hasRemaining())
+                out.write(buffers);
+            out.force(true);
+        }
+        try {
+            Files.move(temporary, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, archive, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Memory-maps the archive and decodes it, if it exists and was compiled
+     * from the current {@code .json} file. If the {@code .json} file doesn't
+     * exist the archive is trusted as is.
+     *
+     * @return {@code true} if the archive was decoded, {@code false} if it
+     *         is missing or stale.
+     * @throws IOException
+     *             if any I/O errors occur while mapping the archive.
+     */
+    private boolean read() throws IOException {
+        if (!Files.exists(archive))
+            return false;
+        ByteBuffer buf;
+        try (FileChannel in = FileChannel.open(archive, StandardOpenOption.READ)) {
+            buf = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+        }
+        if (buf.remaining() < HEADER_SIZE || buf.getInt() != MAGIC || buf.getInt() != VERSION)
+            return false;
+        long checksum = buf.getLong();
+        if (Files.exists(source) && checksum != checksum(source))
+            return false;
+        int length = buf.getInt();
+        long expected = buf.getLong();
+        if (length != buf.remaining())
+            return false;
+        CRC32 crc = new CRC32();
+        crc.update(buf.duplicate());
+        if (crc.getValue() != expected)
+            return false;
+        decode(buf);
+        this.checksum = checksum;
+        return true;
+    }
+
+    /**
+     * Computes the checksum of {@code file} by memory-mapping it, so that the
+     * file never has to be copied onto the heap.
+     *
+     * @param file
+     *            the file to compute the checksum of.
+     * @return the checksum of the file.
+     * @throws IOException
+     *             if any I/O errors occur while mapping the file.
+     */
+    private static long checksum(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            CRC32 crc = new CRC32();
+            crc.update(in.map(FileChannel.MapMode.READ_ONLY, 0, in.size()));
+            return crc.getValue();
+        }
+    }
+
+    /**
+     * Writes {@code s} to {@code out} as its length followed by its
+     * {@code UTF-8} bytes.
+     *
+     * @param out
+     *            the stream to write the string to.
+     * @param s
+     *            the string to write.
+     * @throws IOException
+     *             if any I/O errors occur while writing.
+     */
+    protected static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}
+     * from {@code buf}.
+     *
+     * @param buf
+     *            the buffer to read the string from.
+     * @return the string.
+     */
+    protected static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & 0xffff];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,19 +1,28 @@
 package com.asteria.utility;
 
-import java.util.ArrayDeque;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.util.Collection;
-import java.util.Queue;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * The class that allows a series of tasks or services to be executed
- * asynchronously in the background.
+ * asynchronously in the background. Tasks are executed on a pool of threads
+ * as soon as every task they depend on has completed, which means tasks that
+ * don't depend on each other are executed concurrently.
  * <p>
  * <p>
  * Please note that a single background loader instance can only be used once.
@@ -27,16 +36,26 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 public final class BackgroundLoader {
 
     /**
-     * The executor that will execute the queue of tasks asynchronously in the
+     * The logger that will print the timings of the background tasks.
+     */
+    private static final Logger logger = LoggerUtils.getLogger(BackgroundLoader.class);
+
+    /**
+     * The executor that will execute the tasks asynchronously in the
      * background.
      */
-    private final ExecutorService service = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(
-        "BackgroundLoaderThread").setDaemon(true).build());
+    private final ExecutorService service;
+
+    /**
+     * The futures of the tasks being executed, in the order they were
+     * submitted.
+     */
+    private final Map<BackgroundTask, CompletableFuture<Void>> futures = new LinkedHashMap<>();
 
     /**
-     * The queue of tasks that will be executed by the executor.
+     * The time in nanoseconds that this background loader was started at.
      */
-    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private long started;
 
     /**
      * The flag that determines if this background loader has been shutdown.
@@ -44,8 +63,24 @@ public final class BackgroundLoader {
     private boolean shutdown;
 
     /**
-     * Starts this background loader by polling the queue of tasks into the
-     * executor.
+     * Creates a new {@link BackgroundLoader}.
+     *
+     * @param threads
+     *            the amount of threads that will execute the tasks.
+     */
+    public BackgroundLoader(int threads) {
+        Preconditions.checkArgument(threads > 0, "threads <= 0");
+        this.service = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("BackgroundLoaderThread-%d")
+            .setDaemon(true).build());
+    }
+
+    /**
+     * Starts this background loader by scheduling every task to be executed
+     * once the tasks it depends on have completed. The executor is only
+     * shutdown once every task has completed, because dependent tasks are
+     * submitted to it as their dependencies complete. Dependencies that aren't
+     * within {@code backgroundTasks} are scheduled as well. If a task fails,
+     * the tasks that depend on it are never executed.
      * <p>
      * <p>
      * Please note that {@code awaitCompletion()} can be called after this in
@@ -56,20 +91,37 @@ public final class BackgroundLoader {
      * @throws IllegalStateException
      *             if this background loader has been shutdown.
      */
-    public void start(Collection<Runnable> backgroundTasks) {
+    public void start(Collection<BackgroundTask> backgroundTasks) {
         Preconditions.checkState(!shutdown && !service.isShutdown(), "This background loader has been shutdown!");
-        tasks.addAll(backgroundTasks);
-        Runnable t;
-        while ((t = tasks.poll()) != null)
-            service.execute(t);
-        service.shutdown();
+        started = System.nanoTime();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        backgroundTasks.forEach(this::schedule);
+    }
+
+    /**
+     * Schedules {@code task} to be executed once its dependencies have
+     * completed, scheduling the dependencies first if needed.
+     *
+     * @param task
+     *            the task to schedule.
+     * @return the future of the task.
+     */
+    private CompletableFuture<Void> schedule(BackgroundTask task) {
+        CompletableFuture<Void> future = futures.get(task);
+        if (future != null)
+            return future;
+        CompletableFuture<?>[] dependencies = task.getDependencies().stream().map(this::schedule).toArray(CompletableFuture[]::new);
+        future = CompletableFuture.allOf(dependencies).thenRunAsync(task, service);
+        futures.put(task, future);
+        return future;
     }
 
     /**
      * Awaits the completion of the execution of the tasks by the executor. This
      * will block the thread for an infinite amount of time or until the tasks
-     * are completed. Once the tasks complete, this background loader will be
-     * shutdown and cannot be used again.
+     * are completed. Once the tasks complete, the time it took to execute
+     * every task is logged and this background loader will be shutdown and
+     * cannot be used again.
      * <p>
      * <p>
      * Please note that {@code start()} must be called before this in order to
@@ -82,13 +134,42 @@ public final class BackgroundLoader {
      */
     public boolean awaitCompletion() {
         Preconditions.checkState(!shutdown, "This background loader has been shutdown!");
-        try {
-            service.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
-        } catch (InterruptedException e) {
-            LoggerUtils.getLogger(BackgroundLoader.class).log(Level.SEVERE, "The background service loader was interrupted.", e);
-            return false;
+        boolean completed = true;
+        for (Map.Entry<BackgroundTask, CompletableFuture<Void>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get();
+            } catch (InterruptedException e) {
+                logger.log(Level.SEVERE, "The background service loader was interrupted.", e);
+                service.shutdownNow();
+                return false;
+            } catch (ExecutionException e) {
+                logger.log(Level.SEVERE, "Background task " + entry.getKey().getName() + " did not complete.", e.getCause());
+                completed = false;
+            }
         }
+        service.shutdown();
         shutdown = true;
-        return true;
+        logTimings(System.nanoTime() - started);
+        return completed;
+    }
+
+    /**
+     * Logs the time it took to execute every task, slowest first, and the
+     * peak heap usage since this loader was started, so that startup
+     * regressions are visible.
+     *
+     * @param elapsed
+     *            the amount of nanoseconds it took to execute every task.
+     */
+    private void logTimings(long elapsed) {
+        long total = futures.keySet().stream().mapToLong(t -> Math.max(0, t.getElapsed())).sum();
+        long peak = ManagementFactory.getMemoryPoolMXBeans().stream().filter(p -> p.getType() == MemoryType.HEAP).mapToLong(
+            p -> p.getPeakUsage().getUsed()).sum();
+        StringBuilder sb = new StringBuilder("Background load completed in " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms ("
+            + TimeUnit.NANOSECONDS.toMillis(total) + "ms of work, peak heap " + (peak >> 20) + "MB)");
+        futures.keySet().stream().sorted(Comparator.comparingLong(BackgroundTask::getElapsed).reversed()).forEach(t -> sb.append(
+            System.lineSeparator()).append("    ").append(t.getName()).append(": ").append(t.getElapsed() == -1 ? "skipped"
+            : TimeUnit.NANOSECONDS.toMillis(t.getElapsed()) + "ms"));
+        logger.info(sb.toString());
     }
 }
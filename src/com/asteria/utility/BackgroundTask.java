@@ -0,0 +1,115 @@
+package com.asteria.utility;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A single task executed by the {@link BackgroundLoader}, along with the tasks
+ * that must complete before it can be executed. Because dependencies are
+ * given when the task is created, every dependency must be created before the
+ * tasks that depend on it and cycles can never be formed.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class BackgroundTask implements Runnable {
+
+    /**
+     * The name of this task, used when logging timings.
+     */
+    private final String name;
+
+    /**
+     * The runnable that will be executed by this task.
+     */
+    private final Runnable task;
+
+    /**
+     * The tasks that must complete before this task can be executed.
+     */
+    private final List<BackgroundTask> dependencies;
+
+    /**
+     * The amount of nanoseconds it took to execute this task, or {@code -1}
+     * if this task hasn't been executed yet.
+     */
+    private volatile long elapsed = -1;
+
+    /**
+     * Creates a new {@link BackgroundTask}.
+     *
+     * @param name
+     *            the name of this task, used when logging timings.
+     * @param task
+     *            the runnable that will be executed by this task.
+     * @param dependencies
+     *            the tasks that must complete before this task can be
+     *            executed.
+     */
+    public BackgroundTask(String name, Runnable task, BackgroundTask... dependencies) {
+        Preconditions.checkArgument(Arrays.stream(dependencies).allMatch(d -> d != null), "dependencies cannot contain null");
+        this.name = name;
+        this.task = task;
+        this.dependencies = Collections.unmodifiableList(Arrays.asList(dependencies.clone()));
+    }
+
+    /**
+     * Creates a new {@link BackgroundTask} named after the class of
+     * {@code task}.
+     *
+     * @param task
+     *            the runnable that will be executed by this task.
+     * @param dependencies
+     *            the tasks that must complete before this task can be
+     *            executed.
+     */
+    public BackgroundTask(Runnable task, BackgroundTask... dependencies) {
+        this(task.getClass().getSimpleName(), task, dependencies);
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            elapsed = System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BACKGROUND_TASK[name= " + name + ", elapsed= " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms]";
+    }
+
+    /**
+     * Gets the name of this task.
+     *
+     * @return the name of this task.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the tasks that must complete before this task can be executed.
+     *
+     * @return the dependencies of this task.
+     */
+    public List<BackgroundTask> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Gets the amount of nanoseconds it took to execute this task.
+     *
+     * @return the elapsed time, or {@code -1} if this task hasn't been
+     *         executed yet.
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+}
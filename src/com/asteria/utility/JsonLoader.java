@@ -1,21 +1,33 @@
 package com.asteria.utility;
 
-import java.io.FileReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 
 /**
  * The utility class that provides functions for parsing {@code .json} files.
+ * Files are streamed rather than parsed into a single tree, only a single
+ * element of the top level array is held in memory at any given time.
  *
  * @author lare96 <http://github.com/lare96>
  */
 public abstract class JsonLoader implements Runnable {
 
+    /**
+     * The {@code Gson} instance shared between every loader. {@code Gson}
+     * instances are thread safe, so loaders executing concurrently can use it
+     * without synchronization.
+     */
+    private static final Gson BUILDER = new GsonBuilder().create();
+
     /**
      * The path to the {@code .json} file being parsed.
      */
@@ -48,23 +60,35 @@ public abstract class JsonLoader implements Runnable {
 
     /**
      * Loads the parsed data. How the data is loaded is defined by
-     * {@link JsonLoader#load(JsonObject, Gson)}.
+     * {@link JsonLoader#load(JsonObject, Gson)}, which is invoked for every
+     * element of the top level array as soon as that element has been read.
      *
      * @return the loader instance, for chaining.
      */
     public final JsonLoader load() {
-        try (FileReader in = new FileReader(Paths.get(path).toFile())) {
-            JsonParser parser = new JsonParser();
-            JsonArray array = (JsonArray) parser.parse(in);
-            Gson builder = new GsonBuilder().create();
-
-            for (int i = 0; i < array.size(); i++) {
-                JsonObject reader = (JsonObject) array.get(i);
-                load(reader, builder);
-            }
+        try {
+            parse();
         } catch (Exception e) {
             e.printStackTrace();
         }
         return this;
     }
+
+    /**
+     * Loads the parsed data in the same way as {@link #load()}, but throws any
+     * errors that occur instead of printing them. This should be used when
+     * partially loaded data can't be tolerated.
+     *
+     * @throws IOException
+     *             if any I/O errors occur while reading the file.
+     */
+    public final void parse() throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8); JsonReader stream = new JsonReader(in)) {
+            JsonParser parser = new JsonParser();
+            stream.beginArray();
+            while (stream.hasNext())
+                load(parser.parse(stream).getAsJsonObject(), BUILDER);
+            stream.endArray();
+        }
+    }
 }
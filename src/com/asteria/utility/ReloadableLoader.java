@@ -0,0 +1,86 @@
+package com.asteria.utility;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A loader whose data can be reloaded while the server is online. Reloading
+ * happens in two steps: the data is first loaded into staging tables on a
+ * background thread with {@link #reload()}, and then published into the live
+ * tables with {@link #swap()} on the game thread between two ticks. This
+ * means the live tables are never seen in a partially loaded state.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public interface ReloadableLoader {
+
+    /**
+     * Loads the data into the staging tables of this loader, throwing any
+     * errors that occur instead of printing them. This is invoked on a
+     * background thread and must never touch the live tables.
+     *
+     * @throws Exception
+     *             if any errors occur while loading.
+     */
+    void reload() throws Exception;
+
+    /**
+     * Publishes the data within the staging tables of this loader into the
+     * live tables. This must only ever be invoked on the game thread, after
+     * {@link #reload()} completed normally.
+     */
+    void swap();
+
+    /**
+     * Replaces the contents of the live array {@code live} with the contents
+     * of the staging array {@code staged}.
+     *
+     * @param live
+     *            the live array.
+     * @param staged
+     *            the staging array.
+     * @throws IllegalArgumentException
+     *             if the arrays are the same or aren't the same length.
+     */
+    static void replace(Object[] live, Object[] staged) {
+        Preconditions.checkArgument(live != staged, "cannot swap the live table with itself");
+        Preconditions.checkArgument(live.length == staged.length, "staging table length mismatch");
+        System.arraycopy(staged, 0, live, 0, live.length);
+    }
+
+    /**
+     * Replaces the contents of the live map {@code live} with the contents of
+     * the staging map {@code staged}.
+     *
+     * @param live
+     *            the live map.
+     * @param staged
+     *            the staging map.
+     * @throws IllegalArgumentException
+     *             if the maps are the same.
+     */
+    static <K, V> void replace(Map<K, V> live, Map<K, V> staged) {
+        Preconditions.checkArgument(live != staged, "cannot swap the live table with itself");
+        live.clear();
+        live.putAll(staged);
+    }
+
+    /**
+     * Replaces the contents of the live collection {@code live} with the
+     * contents of the staging collection {@code staged}.
+     *
+     * @param live
+     *            the live collection.
+     * @param staged
+     *            the staging collection.
+     * @throws IllegalArgumentException
+     *             if the collections are the same.
+     */
+    static <E> void replace(Collection<E> live, Collection<E> staged) {
+        Preconditions.checkArgument(live != staged, "cannot swap the live table with itself");
+        live.clear();
+        live.addAll(staged);
+    }
+}
@@ -1,9 +1,12 @@
 package com.asteria.utility.json;
 
+import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
 
 import com.asteria.game.character.player.content.Requirement;
 import com.asteria.utility.JsonLoader;
+import com.asteria.utility.ReloadableLoader;
 import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
@@ -14,13 +17,31 @@ import com.google.gson.JsonObject;
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class EquipmentRequirementLoader extends JsonLoader {
+public final class EquipmentRequirementLoader extends JsonLoader implements ReloadableLoader {
 
     /**
-     * Creates a new {@link EquipmentRequirementLoader}.
+     * The table that the equipment requirements are loaded into.
+     */
+    private final Map<Integer, Requirement[]> equipmentRequirements;
+
+    /**
+     * Creates a new {@link EquipmentRequirementLoader} that loads into the live
+     * table.
      */
     public EquipmentRequirementLoader() {
+        this(Requirement.REQUIREMENTS);
+    }
+
+    /**
+     * Creates a new {@link EquipmentRequirementLoader}.
+     *
+     * @param equipmentRequirements
+     *            the table that the equipment requirements are loaded into,
+     *            this should be an empty staging table when reloading.
+     */
+    public EquipmentRequirementLoader(Map<Integer, Requirement[]> equipmentRequirements) {
         super("./data/json/equipment/equipment_requirements.json");
+        this.equipmentRequirements = equipmentRequirements;
     }
 
     @Override
@@ -29,8 +50,18 @@ public final class EquipmentRequirementLoader extends JsonLoader {
         Requirement[] requirements = Objects.requireNonNull(builder.fromJson(reader.get("requirements"), Requirement[].class));
         Preconditions.checkState(requirements.length > 0);
 
-        if (Requirement.REQUIREMENTS.containsKey(id))
+        if (equipmentRequirements.containsKey(id))
             throw new IllegalStateException("Duplicate key values [" + id + "] for equipment requirements.");
-        Requirement.REQUIREMENTS.put(id, requirements);
+        equipmentRequirements.put(id, requirements);
+    }
+
+    @Override
+    public void reload() throws IOException {
+        parse();
+    }
+
+    @Override
+    public void swap() {
+        ReloadableLoader.replace(Requirement.REQUIREMENTS, equipmentRequirements);
     }
 }
@@ -1,9 +1,15 @@
 package com.asteria.utility.json;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Objects;
 
 import com.asteria.game.item.ItemDefinition;
+import com.asteria.utility.ArchivedJsonLoader;
 import com.asteria.utility.JsonLoader;
+import com.asteria.utility.ReloadableLoader;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
@@ -12,13 +18,31 @@ import com.google.gson.JsonObject;
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class ItemDefinitionLoader extends JsonLoader {
+public final class ItemDefinitionLoader extends ArchivedJsonLoader implements ReloadableLoader {
 
     /**
-     * Creates a new {@link ItemDefinitionLoader}.
+     * The table that the item definitions are loaded into.
+     */
+    private final ItemDefinition[] definitions;
+
+    /**
+     * Creates a new {@link ItemDefinitionLoader} that loads into the live
+     * table.
      */
     public ItemDefinitionLoader() {
+        this(ItemDefinition.DEFINITIONS);
+    }
+
+    /**
+     * Creates a new {@link ItemDefinitionLoader}.
+     *
+     * @param definitions
+     *            the table that the item definitions are loaded into, this
+     *            should be an empty staging table when reloading.
+     */
+    public ItemDefinitionLoader(ItemDefinition[] definitions) {
         super("./data/json/items/item_definitions.json");
+        this.definitions = definitions;
     }
 
     @Override
@@ -39,7 +63,71 @@ public final class ItemDefinitionLoader extends JsonLoader {
         boolean platebody = reader.get("platebody").getAsBoolean();
         boolean fullHelm = reader.get("fullHelm").getAsBoolean();
         boolean tradeable = reader.get("tradeable").getAsBoolean();
-        ItemDefinition.DEFINITIONS[index] = new ItemDefinition(index, name, description, equipmentSlot, noteable, stackable, specialPrice,
+        definitions[index] = new ItemDefinition(index, name, description, equipmentSlot, noteable, stackable, specialPrice,
             generalPrice, lowAlchValue, highAlchValue, weight, bonus, twoHanded, fullHelm, platebody, tradeable);
     }
-}
\ No newline at end of file
+
+    @Override
+    protected void encode(DataOutputStream out) throws IOException {
+        out.writeInt((int) Arrays.stream(definitions).filter(Objects::nonNull).count());
+        for (ItemDefinition def : definitions) {
+            if (def == null)
+                continue;
+            out.writeInt(def.getId());
+            writeString(out, def.getName());
+            writeString(out, def.getDescription());
+            out.writeInt(def.getEquipmentSlot());
+            out.writeByte((def.isNoteable() ? 1 : 0) | (def.isStackable() ? 2 : 0) | (def.isTwoHanded() ? 4 : 0) | (def.isFullHelm() ? 8
+                : 0) | (def.isPlatebody() ? 16 : 0) | (def.isTradeable() ? 32 : 0));
+            out.writeInt(def.getSpecialPrice());
+            out.writeInt(def.getGeneralPrice());
+            out.writeInt(def.getLowAlchValue());
+            out.writeInt(def.getHighAlchValue());
+            out.writeDouble(def.getWeight());
+            int[] bonus = def.getBonus();
+            out.writeByte(bonus.length);
+            for (int value : bonus)
+                out.writeInt(value);
+        }
+    }
+
+    @Override
+    protected void decode(ByteBuffer buf) {
+        int amount = buf.getInt();
+        for (int i = 0; i < amount; i++) {
+            int index = buf.getInt();
+            String name = readString(buf);
+            String description = readString(buf);
+            int equipmentSlot = buf.getInt();
+            int flags = buf.get();
+            int specialPrice = buf.getInt();
+            int generalPrice = buf.getInt();
+            int lowAlchValue = buf.getInt();
+            int highAlchValue = buf.getInt();
+            double weight = buf.getDouble();
+            int[] bonus = new int[buf.get() & 0xff];
+            for (int j = 0; j < bonus.length; j++)
+                bonus[j] = buf.getInt();
+            definitions[index] = new ItemDefinition(index, name, description, equipmentSlot, (flags & 1) != 0,
+                (flags & 2) != 0, specialPrice, generalPrice, lowAlchValue, highAlchValue, weight, bonus, (flags & 4) != 0,
+                (flags & 8) != 0, (flags & 16) != 0, (flags & 32) != 0);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <p>
+     * The archive is compiled again from the reloaded definitions.
+     */
+    @Override
+    public void reload() throws IOException {
+        parseSource();
+        pack();
+    }
+
+    @Override
+    public void swap() {
+        ReloadableLoader.replace(ItemDefinition.DEFINITIONS, definitions);
+    }
+}
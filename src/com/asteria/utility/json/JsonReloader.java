@@ -0,0 +1,167 @@
+package com.asteria.utility.json;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.asteria.game.World;
+import com.asteria.game.character.npc.NpcDefinition;
+import com.asteria.game.character.npc.drop.NpcDropCache;
+import com.asteria.game.item.ItemDefinition;
+import com.asteria.task.Task;
+import com.asteria.utility.LoggerUtils;
+import com.asteria.utility.ReloadableLoader;
+
+/**
+ * The class that reloads definitions, shops, drop tables and equipment data
+ * while the server is online. The data is parsed into staging tables on the
+ * service thread, and then every live table is swapped with its staging table
+ * at once on the game thread between two ticks. If any data fails to parse,
+ * none of the live tables are touched.
+ *
+ * @author lare96 <http://github.com/lare96>
+ */
+public final class JsonReloader {
+
+    /**
+     * The logger that will print important information.
+     */
+    private static final Logger logger = LoggerUtils.getLogger(JsonReloader.class);
+
+    /**
+     * The flag that determines if a reload is currently in progress. This is
+     * only ever accessed on the game thread.
+     */
+    private static boolean reloading;
+
+    /**
+     * The default constructor.
+     *
+     * @throws UnsupportedOperationException
+     *             if this class is instantiated.
+     */
+    private JsonReloader() {
+        throw new UnsupportedOperationException("This class cannot be instantiated!");
+    }
+
+    /**
+     * Starts reloading the data, unless a reload is already in progress. This
+     * must only ever be invoked on the game thread.
+     *
+     * @param callback
+     *            the callback invoked on the game thread with a summary once
+     *            the reload has completed or failed.
+     * @return {@code true} if the reload was started, {@code false} if a
+     *         reload is already in progress.
+     */
+    public static boolean reload(Consumer<String> callback) {
+        if (reloading)
+            return false;
+        reloading = true;
+        List<ReloadableLoader> loaders = createLoaders();
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        World.getService().submit(() -> {
+            long start = System.nanoTime();
+            try {
+                for (ReloadableLoader loader : loaders)
+                    loader.reload();
+                future.complete(System.nanoTime() - start);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        World.submit(new SwapTask(loaders, future, callback));
+        return true;
+    }
+
+    /**
+     * Creates the loaders for every reloadable table, each loading into a new
+     * empty staging table.
+     *
+     * @return the loaders.
+     */
+    private static List<ReloadableLoader> createLoaders() {
+        return Arrays.asList(new ItemDefinitionLoader(new ItemDefinition[ItemDefinition.DEFINITIONS.length]), new NpcDefinitionLoader(
+            new NpcDefinition[NpcDefinition.DEFINITIONS.length], new HashSet<>()), new ShopLoader(new HashMap<>()), new NpcDropTableLoader(
+            new HashMap<>()), new NpcDropCacheLoader(new EnumMap<>(NpcDropCache.class)), new EquipmentRequirementLoader(new HashMap<>()),
+            new WeaponAnimationLoader(new HashMap<>()), new WeaponInterfaceLoader(new HashMap<>()), new WeaponPoisonLoader(new HashMap<>()));
+    }
+
+    /**
+     * The {@link Task} implementation that waits for the staging tables to be
+     * loaded, and then swaps them with the live tables.
+     *
+     * @author lare96 <http://github.com/lare96>
+     */
+    private static final class SwapTask extends Task {
+
+        /**
+         * The loaders whose staging tables will be swapped.
+         */
+        private final List<ReloadableLoader> loaders;
+
+        /**
+         * The future completed with the amount of nanoseconds it took to load
+         * the staging tables.
+         */
+        private final CompletableFuture<Long> future;
+
+        /**
+         * The callback invoked with a summary once the reload has completed or
+         * failed.
+         */
+        private final Consumer<String> callback;
+
+        /**
+         * Creates a new {@link SwapTask}.
+         *
+         * @param loaders
+         *            the loaders whose staging tables will be swapped.
+         * @param future
+         *            the future completed with the amount of nanoseconds it
+         *            took to load the staging tables.
+         * @param callback
+         *            the callback invoked with a summary once the reload has
+         *            completed or failed.
+         */
+        SwapTask(List<ReloadableLoader> loaders, CompletableFuture<Long> future, Consumer<String> callback) {
+            super(1, false);
+            this.loaders = loaders;
+            this.future = future;
+            this.callback = callback;
+        }
+
+        @Override
+        public void execute() {
+            if (!future.isDone())
+                return;
+            cancel();
+            String summary;
+            try {
+                long parsed = future.join();
+                long start = System.nanoTime();
+                loaders.forEach(ReloadableLoader::swap);
+                long swapped = System.nanoTime() - start;
+                summary = "Reloaded " + loaders.size() + " tables, parsed in " + TimeUnit.NANOSECONDS.toMillis(parsed)
+                    + "ms and swapped in " + TimeUnit.NANOSECONDS.toMicros(swapped) + "us.";
+                logger.info(summary);
+            } catch (Exception e) {
+                summary = "Reload failed, no tables were changed: " + e.getCause();
+                logger.log(Level.SEVERE, "Reload failed, no tables were changed.", e);
+            }
+            callback.accept(summary);
+        }
+
+        @Override
+        public void onCancel() {
+            reloading = false;
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.asteria.utility.json;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.Set;
 
 import com.asteria.game.character.npc.NpcAggression;
 import com.asteria.game.character.npc.NpcDefinition;
+import com.asteria.utility.ArchivedJsonLoader;
 import com.asteria.utility.JsonLoader;
+import com.asteria.utility.ReloadableLoader;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
@@ -13,13 +20,40 @@ import com.google.gson.JsonObject;
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class NpcDefinitionLoader extends JsonLoader {
+public final class NpcDefinitionLoader extends ArchivedJsonLoader implements ReloadableLoader {
 
     /**
-     * Creates a new {@link NpcDefinitionLoader}.
+     * The table that the npc definitions are loaded into.
+     */
+    private final NpcDefinition[] definitions;
+
+    /**
+     * The table that the identifiers of aggressive npcs are loaded into.
+     */
+    private final Set<Integer> aggressiveNpcs;
+
+    /**
+     * Creates a new {@link NpcDefinitionLoader} that loads into the live
+     * tables.
      */
     public NpcDefinitionLoader() {
+        this(NpcDefinition.DEFINITIONS, NpcAggression.AGGRESSIVE);
+    }
+
+    /**
+     * Creates a new {@link NpcDefinitionLoader}.
+     *
+     * @param definitions
+     *            the table that the npc definitions are loaded into, this
+     *            should be an empty staging table when reloading.
+     * @param aggressiveNpcs
+     *            the table that the identifiers of aggressive npcs are loaded
+     *            into, this should be an empty staging table when reloading.
+     */
+    public NpcDefinitionLoader(NpcDefinition[] definitions, Set<Integer> aggressiveNpcs) {
         super("./data/json/npcs/npc_definitions.json");
+        this.definitions = definitions;
+        this.aggressiveNpcs = aggressiveNpcs;
     }
 
     @Override
@@ -45,11 +79,73 @@ public final class NpcDefinitionLoader extends JsonLoader {
         int rangedDefence = reader.get("defenceRange").getAsInt();
         int magicDefence = reader.get("defenceMage").getAsInt();
 
-        NpcDefinition.DEFINITIONS[index] = new NpcDefinition(index, name, description, combatLevel, size, attackable, aggressive, retreats,
+        definitions[index] = new NpcDefinition(index, name, description, combatLevel, size, attackable, aggressive, retreats,
             poisonous, respawnTime, maxHit, hitpoints, attackSpeed, attackAnim, defenceAnim, deathAnim, attackBonus, meleeDefence,
             rangedDefence, magicDefence);
 
         if (aggressive)
-            NpcAggression.AGGRESSIVE.add(index);
+            aggressiveNpcs.add(index);
+    }
+
+    @Override
+    protected void encode(DataOutputStream out) throws IOException {
+        out.writeInt((int) Arrays.stream(definitions).filter(Objects::nonNull).count());
+        for (NpcDefinition def : definitions) {
+            if (def == null)
+                continue;
+            out.writeInt(def.getId());
+            writeString(out, def.getName());
+            writeString(out, def.getDescription());
+            out.writeByte((def.isAttackable() ? 1 : 0) | (def.isAggressive() ? 2 : 0) | (def.isRetreats() ? 4 : 0) | (def.isPoisonous() ? 8
+                : 0));
+            out.writeInt(def.getCombatLevel());
+            out.writeInt(def.getSize());
+            out.writeInt(def.getRespawnTime() + 1); // The getter subtracts one.
+            out.writeInt(def.getMaxHit());
+            out.writeInt(def.getHitpoints());
+            out.writeInt(def.getAttackSpeed());
+            out.writeInt(def.getAttackAnimation());
+            out.writeInt(def.getDefenceAnimation());
+            out.writeInt(def.getDeathAnimation());
+            out.writeInt(def.getAttackBonus());
+            out.writeInt(def.getMeleeDefence());
+            out.writeInt(def.getRangedDefence());
+            out.writeInt(def.getMagicDefence());
+        }
+    }
+
+    @Override
+    protected void decode(ByteBuffer buf) {
+        int amount = buf.getInt();
+        for (int i = 0; i < amount; i++) {
+            int index = buf.getInt();
+            String name = readString(buf);
+            String description = readString(buf);
+            int flags = buf.get();
+            boolean aggressive = (flags & 2) != 0;
+            definitions[index] = new NpcDefinition(index, name, description, buf.getInt(), buf.getInt(), (flags & 1) != 0,
+                aggressive, (flags & 4) != 0, (flags & 8) != 0, buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt(), buf
+                    .getInt(), buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt(), buf.getInt());
+            if (aggressive)
+                aggressiveNpcs.add(index);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <p>
+     * The archive is compiled again from the reloaded definitions.
+     */
+    @Override
+    public void reload() throws IOException {
+        parseSource();
+        pack();
+    }
+
+    @Override
+    public void swap() {
+        ReloadableLoader.replace(NpcDefinition.DEFINITIONS, definitions);
+        ReloadableLoader.replace(NpcAggression.AGGRESSIVE, aggressiveNpcs);
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,14 @@
 package com.asteria.utility.json;
 
+import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
 
 import com.asteria.game.character.npc.drop.NpcDrop;
 import com.asteria.game.character.npc.drop.NpcDropCache;
 import com.asteria.game.character.npc.drop.NpcDropManager;
 import com.asteria.utility.JsonLoader;
+import com.asteria.utility.ReloadableLoader;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
@@ -14,19 +17,46 @@ import com.google.gson.JsonObject;
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class NpcDropCacheLoader extends JsonLoader {
+public final class NpcDropCacheLoader extends JsonLoader implements ReloadableLoader {
 
     /**
-     * Creates a new {@link NpcDropCacheLoader}.
+     * The table that the common npc drop tables are loaded into.
+     */
+    private final Map<NpcDropCache, NpcDrop[]> common;
+
+    /**
+     * Creates a new {@link NpcDropCacheLoader} that loads into the live table.
      */
     public NpcDropCacheLoader() {
+        this(NpcDropManager.COMMON);
+    }
+
+    /**
+     * Creates a new {@link NpcDropCacheLoader}.
+     *
+     * @param common
+     *            the table that the common npc drop tables are loaded into,
+     *            this should be an empty staging table when reloading.
+     */
+    public NpcDropCacheLoader(Map<NpcDropCache, NpcDrop[]> common) {
         super("./data/json/npcs/npc_drops_cache.json");
+        this.common = common;
     }
 
     @Override
     public void load(JsonObject reader, Gson builder) {
         NpcDropCache table = Objects.requireNonNull(builder.fromJson(reader.get("table"), NpcDropCache.class));
         NpcDrop[] items = Objects.requireNonNull(builder.fromJson(reader.get("items"), NpcDrop[].class));
-        NpcDropManager.COMMON.put(table, items);
+        common.put(table, items);
+    }
+
+    @Override
+    public void reload() throws IOException {
+        parse();
+    }
+
+    @Override
+    public void swap() {
+        ReloadableLoader.replace(NpcDropManager.COMMON, common);
     }
 }
@@ -1,6 +1,8 @@
 package com.asteria.utility.json;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Objects;
 
 import com.asteria.game.character.npc.drop.NpcDrop;
@@ -8,6 +10,7 @@ import com.asteria.game.character.npc.drop.NpcDropCache;
 import com.asteria.game.character.npc.drop.NpcDropManager;
 import com.asteria.game.character.npc.drop.NpcDropTable;
 import com.asteria.utility.JsonLoader;
+import com.asteria.utility.ReloadableLoader;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
@@ -16,13 +19,30 @@ import com.google.gson.JsonObject;
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class NpcDropTableLoader extends JsonLoader {
+public final class NpcDropTableLoader extends JsonLoader implements ReloadableLoader {
 
     /**
-     * Creates a new {@link NpcDropTableLoader}.
+     * The table that the npc drop tables are loaded into.
+     */
+    private final Map<Integer, NpcDropTable> tables;
+
+    /**
+     * Creates a new {@link NpcDropTableLoader} that loads into the live table.
      */
     public NpcDropTableLoader() {
+        this(NpcDropManager.TABLES);
+    }
+
+    /**
+     * Creates a new {@link NpcDropTableLoader}.
+     *
+     * @param tables
+     *            the table that the npc drop tables are loaded into, this
+     *            should be an empty staging table when reloading.
+     */
+    public NpcDropTableLoader(Map<Integer, NpcDropTable> tables) {
         super("./data/json/npcs/npc_drops.json");
+        this.tables = tables;
     }
 
     @Override
@@ -32,6 +52,16 @@ public final class NpcDropTableLoader extends JsonLoader {
         NpcDropCache[] common = Objects.requireNonNull(builder.fromJson(reader.get("common"), NpcDropCache[].class));
         if (Arrays.stream(common).anyMatch(Objects::isNull))
             throw new NullPointerException("Invalid common drop table, npc_drops.json");
-        Arrays.stream(array).forEach(id -> NpcDropManager.TABLES.put(id, new NpcDropTable(unique, common)));
+        Arrays.stream(array).forEach(id -> tables.put(id, new NpcDropTable(unique, common)));
+    }
+
+    @Override
+    public void reload() throws IOException {
+        parse();
+    }
+
+    @Override
+    public void swap() {
+        ReloadableLoader.replace(NpcDropManager.TABLES, tables);
     }
 }
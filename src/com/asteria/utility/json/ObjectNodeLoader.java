@@ -32,7 +32,7 @@ public final class ObjectNodeLoader extends JsonLoader {
         Position position = Objects.requireNonNull(builder.fromJson(reader.get("position"), Position.class));
         ObjectDirection face = Objects.requireNonNull(ObjectDirection.valueOf(reader.get("direction").getAsString()));
         ObjectType type = Objects.requireNonNull(ObjectType.valueOf(reader.get("type").getAsString()));
-        Preconditions.checkState(!ObjectNodeManager.REMOVE_OBJECTS.contains(position));
+        Preconditions.checkState(!ObjectNodeManager.isRemoved(position));
         ObjectNodeManager.register(new ObjectNode(id, position, face, type));
     }
 }
\ No newline at end of file
@@ -27,6 +27,6 @@ public final class ObjectNodeRemoveLoader extends JsonLoader {
     public void load(JsonObject reader, Gson builder) {
         Position position = Objects.requireNonNull(builder.fromJson(reader.get("position"), Position.class));
         Preconditions.checkState(!ObjectNodeManager.getObject(position).isPresent());
-        ObjectNodeManager.REMOVE_OBJECTS.add(position);
+        ObjectNodeManager.registerRemoval(position);
     }
 }
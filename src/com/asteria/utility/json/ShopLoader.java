@@ -1,15 +1,20 @@
 package com.asteria.utility.json;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Objects;
 import java.util.OptionalInt;
 
 import com.asteria.game.GameConstants;
+import com.asteria.game.character.player.Player;
 import com.asteria.game.item.Item;
 import com.asteria.game.item.ItemDefinition;
 import com.asteria.game.shop.Currency;
 import com.asteria.game.shop.Shop;
 import com.asteria.utility.JsonLoader;
+import com.asteria.utility.ReloadableLoader;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
@@ -18,13 +23,30 @@ import com.google.gson.JsonObject;
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class ShopLoader extends JsonLoader {
+public final class ShopLoader extends JsonLoader implements ReloadableLoader {
 
     /**
-     * Creates a new {@link ShopLoader}.
+     * The table that the shops are loaded into.
+     */
+    private final Map<String, Shop> shops;
+
+    /**
+     * Creates a new {@link ShopLoader} that loads into the live table.
      */
     public ShopLoader() {
+        this(Shop.SHOPS);
+    }
+
+    /**
+     * Creates a new {@link ShopLoader}.
+     *
+     * @param shops
+     *            the table that the shops are loaded into, this should be an
+     *            empty staging table when reloading.
+     */
+    public ShopLoader(Map<String, Shop> shops) {
         super("./data/json/shops/shops.json");
+        this.shops = shops;
     }
 
     @Override
@@ -40,8 +62,36 @@ public final class ShopLoader extends JsonLoader {
 
         if (op.isPresent())
             throw new IllegalStateException("Item not allowed in shops: " + ItemDefinition.DEFINITIONS[op.getAsInt()].getName());
-        if (Shop.SHOPS.containsKey(name))
+        if (shops.containsKey(name))
             throw new IllegalStateException("Duplicate shop name: " + name);
-        Shop.SHOPS.put(name, shop);
+        shops.put(name, shop);
+    }
+
+    @Override
+    public void reload() throws IOException {
+        parse();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <p>
+     * Players viewing a shop are migrated to the reloaded shop with the same
+     * name, or have the shop closed if it no longer exists.
+     */
+    @Override
+    public void swap() {
+        for (Shop shop : Shop.SHOPS.values()) {
+            Shop reloaded = shops.get(shop.getName());
+            if (reloaded != null) {
+                reloaded.migrate(shop);
+                continue;
+            }
+            for (Player player : new ArrayList<>(shop.getPlayers())) {
+                player.getMessages().sendCloseWindows();
+                player.setOpenShop(null);
+            }
+        }
+        ReloadableLoader.replace(Shop.SHOPS, shops);
     }
 }
@@ -1,9 +1,12 @@
 package com.asteria.utility.json;
 
+import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
 
 import com.asteria.game.character.player.content.WeaponAnimation;
 import com.asteria.utility.JsonLoader;
+import com.asteria.utility.ReloadableLoader;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
@@ -12,19 +15,47 @@ import com.google.gson.JsonObject;
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class WeaponAnimationLoader extends JsonLoader {
+public final class WeaponAnimationLoader extends JsonLoader implements ReloadableLoader {
 
     /**
-     * Creates a new {@link WeaponAnimationLoader}.
+     * The table that the weapon animations are loaded into.
+     */
+    private final Map<Integer, WeaponAnimation> animations;
+
+    /**
+     * Creates a new {@link WeaponAnimationLoader} that loads into the live
+     * table.
      */
     public WeaponAnimationLoader() {
+        this(WeaponAnimation.ANIMATIONS);
+    }
+
+    /**
+     * Creates a new {@link WeaponAnimationLoader}.
+     *
+     * @param animations
+     *            the table that the weapon animations are loaded into, this
+     *            should be an empty staging table when reloading.
+     */
+    public WeaponAnimationLoader(Map<Integer, WeaponAnimation> animations) {
         super("./data/json/equipment/weapon_animations.json");
+        this.animations = animations;
     }
 
     @Override
     public void load(JsonObject reader, Gson builder) {
         int id = reader.get("id").getAsInt();
         WeaponAnimation animation = Objects.requireNonNull(builder.fromJson(reader.get("animation"), WeaponAnimation.class));
-        WeaponAnimation.ANIMATIONS.put(id, animation);
+        animations.put(id, animation);
+    }
+
+    @Override
+    public void reload() throws IOException {
+        parse();
+    }
+
+    @Override
+    public void swap() {
+        ReloadableLoader.replace(WeaponAnimation.ANIMATIONS, animations);
     }
 }
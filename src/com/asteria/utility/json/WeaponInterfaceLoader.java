@@ -1,9 +1,12 @@
 package com.asteria.utility.json;
 
+import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
 
 import com.asteria.game.character.player.content.WeaponInterface;
 import com.asteria.utility.JsonLoader;
+import com.asteria.utility.ReloadableLoader;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
@@ -12,19 +15,47 @@ import com.google.gson.JsonObject;
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class WeaponInterfaceLoader extends JsonLoader {
+public final class WeaponInterfaceLoader extends JsonLoader implements ReloadableLoader {
 
     /**
-     * Creates a new {@link WeaponInterfaceLoader}.
+     * The table that the weapon interfaces are loaded into.
+     */
+    private final Map<Integer, WeaponInterface> weaponInterfaces;
+
+    /**
+     * Creates a new {@link WeaponInterfaceLoader} that loads into the live
+     * table.
      */
     public WeaponInterfaceLoader() {
+        this(WeaponInterface.INTERFACES);
+    }
+
+    /**
+     * Creates a new {@link WeaponInterfaceLoader}.
+     *
+     * @param weaponInterfaces
+     *            the table that the weapon interfaces are loaded into, this
+     *            should be an empty staging table when reloading.
+     */
+    public WeaponInterfaceLoader(Map<Integer, WeaponInterface> weaponInterfaces) {
         super("./data/json/equipment/weapon_interfaces.json");
+        this.weaponInterfaces = weaponInterfaces;
     }
 
     @Override
     public void load(JsonObject reader, Gson builder) {
         int id = reader.get("id").getAsInt();
         WeaponInterface interfaces = Objects.requireNonNull(builder.fromJson(reader.get("interface"), WeaponInterface.class));
-        WeaponInterface.INTERFACES.put(id, interfaces);
+        weaponInterfaces.put(id, interfaces);
+    }
+
+    @Override
+    public void reload() throws IOException {
+        parse();
+    }
+
+    @Override
+    public void swap() {
+        ReloadableLoader.replace(WeaponInterface.INTERFACES, weaponInterfaces);
     }
 }
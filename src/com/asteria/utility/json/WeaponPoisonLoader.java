@@ -1,10 +1,13 @@
 package com.asteria.utility.json;
 
+import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
 
 import com.asteria.game.character.PoisonType;
 import com.asteria.game.character.combat.effect.CombatPoisonEffect;
 import com.asteria.utility.JsonLoader;
+import com.asteria.utility.ReloadableLoader;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
@@ -14,19 +17,46 @@ import com.google.gson.JsonObject;
  *
  * @author lare96 <http://github.com/lare96>
  */
-public final class WeaponPoisonLoader extends JsonLoader {
+public final class WeaponPoisonLoader extends JsonLoader implements ReloadableLoader {
 
     /**
-     * Creates a new {@link WeaponPoisonLoader}.
+     * The table that the weapon poison types are loaded into.
+     */
+    private final Map<Integer, PoisonType> types;
+
+    /**
+     * Creates a new {@link WeaponPoisonLoader} that loads into the live table.
      */
     public WeaponPoisonLoader() {
+        this(CombatPoisonEffect.TYPES);
+    }
+
+    /**
+     * Creates a new {@link WeaponPoisonLoader}.
+     *
+     * @param types
+     *            the table that the weapon poison types are loaded into, this
+     *            should be an empty staging table when reloading.
+     */
+    public WeaponPoisonLoader(Map<Integer, PoisonType> types) {
         super("./data/json/equipment/weapon_poison.json");
+        this.types = types;
     }
 
     @Override
     public void load(JsonObject reader, Gson builder) {
         int id = reader.get("id").getAsInt();
         PoisonType type = Objects.requireNonNull(PoisonType.valueOf(reader.get("type").getAsString()));
-        CombatPoisonEffect.TYPES.put(id, type);
+        types.put(id, type);
+    }
+
+    @Override
+    public void reload() throws IOException {
+        parse();
+    }
+
+    @Override
+    public void swap() {
+        ReloadableLoader.replace(CombatPoisonEffect.TYPES, types);
     }
 }